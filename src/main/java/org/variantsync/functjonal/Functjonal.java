@@ -10,6 +10,7 @@ import java.util.stream.Collectors;
 import org.apache.commons.lang3.function.FailableFunction;
 import org.apache.commons.lang3.function.FailableRunnable;
 import org.apache.commons.lang3.function.FailableSupplier;
+import org.variantsync.functjonal.map.MapUtils;
 
 /**
  * Helper class containing methods for functional programming missing in the standard library
@@ -22,7 +23,7 @@ public class Functjonal {
             Map<K1, V1> m,
             Function<? super K1, ? extends K2> key,
             Function<? super V1, ? extends V2> val) {
-        return bimap(m, key, val, LinkedHashMap::new);
+        return bimap(m, key, val, () -> MapUtils.NewLinkedHashMap(m.size()));
     }
 
     public static <K1, K2, V1, V2, M extends Map<K2, V2>> M bimap(
@@ -0,0 +1,74 @@
+package org.variantsync.functjonal;
+
+import org.variantsync.functjonal.category.Monoid;
+
+import java.util.function.ToDoubleFunction;
+import java.util.stream.Collector;
+import java.util.stream.DoubleStream;
+
+/**
+ * The arithmetic mean of a number of values.
+ * A mean is not monoidal by itself but the pair of sum and count of the averaged values is.
+ * Thus, a Mean stores both and computes the actual mean on demand via {@link #value()}.
+ * @param sum The sum of all averaged values.
+ * @param count The number of averaged values.
+ */
+public record Mean(double sum, long count) {
+    public static final Monoid<Mean> MONOID = Monoid.From(
+            () -> new Mean(0.0, 0),
+            (a, b) -> new Mean(a.sum + b.sum, a.count + b.count)
+    );
+
+    /**
+     * @return The mean of the single given value.
+     */
+    public static Mean of(final double value) {
+        return new Mean(value, 1);
+    }
+
+    /**
+     * Computes the mean of all values in the given stream without boxing them.
+     */
+    public static Mean of(final DoubleStream values) {
+        final double[] acc = values.collect(
+                () -> new double[2],
+                (a, value) -> {
+                    a[0] += value;
+                    a[1] += 1;
+                },
+                Mean::combine
+        );
+        return new Mean(acc[0], (long) acc[1]);
+    }
+
+    /**
+     * Creates a collector that maps each element to a double with the given function and averages these doubles.
+     * Sum and count are accumulated in unboxed slots.
+     */
+    public static <T> Collector<T, ?, Mean> collecting(final ToDoubleFunction<? super T> f) {
+        return Collector.of(
+                () -> new double[2],
+                (a, t) -> {
+                    a[0] += f.applyAsDouble(t);
+                    a[1] += 1;
+                },
+                (a, b) -> {
+                    combine(a, b);
+                    return a;
+                },
+                a -> new Mean(a[0], (long) a[1])
+        );
+    }
+
+    private static void combine(final double[] a, final double[] b) {
+        a[0] += b[0];
+        a[1] += b[1];
+    }
+
+    /**
+     * @return The arithmetic mean, or NaN if no values were averaged.
+     */
+    public double value() {
+        return count == 0 ? Double.NaN : sum / count;
+    }
+}
@@ -0,0 +1,65 @@
+package org.variantsync.functjonal.category;
+
+import java.util.function.ToDoubleFunction;
+import java.util.stream.Collector;
+import java.util.stream.DoubleStream;
+
+/**
+ * A semigroup over unboxed double values with a neutral element w.r.t. composition.
+ * This is the primitive counterpart of {@link Monoid}&lt;Double&gt; that neither boxes the values
+ * it composes nor the intermediate results when folding streams.
+ */
+public interface DoubleMonoid extends DoubleSemigroup {
+    /**
+     * Addition with 0 as neutral element.
+     * Note that floating point addition is only approximately associative.
+     */
+    DoubleMonoid SUM = From(0.0, Double::sum);
+    /**
+     * Minimum with positive infinity as neutral element.
+     */
+    DoubleMonoid MIN = From(Double.POSITIVE_INFINITY, Math::min);
+    /**
+     * Maximum with negative infinity as neutral element.
+     */
+    DoubleMonoid MAX = From(Double.NEGATIVE_INFINITY, Math::max);
+
+    double neutral();
+
+    static DoubleMonoid From(final double neutral, final DoubleSemigroup compose) {
+        return new LambdaDoubleMonoid(neutral, compose);
+    }
+
+    /**
+     * @return A monoid over boxed values that composes values as this monoid does.
+     *         Use this to combine this monoid with other monoids (e.g., in Pair.MONOID).
+     */
+    @Override
+    default Monoid<Double> boxed() {
+        return Monoid.From(this::neutral, this::append);
+    }
+
+    /**
+     * Composes all values in the given stream, starting with the neutral element.
+     */
+    default double fold(final DoubleStream values) {
+        return values.reduce(neutral(), this::append);
+    }
+
+    /**
+     * Creates a collector that maps each element to a double with the given function and composes these doubles with
+     * this monoid.
+     * The doubles are accumulated in a single unboxed slot per (partial) result.
+     */
+    default <T> Collector<T, ?, Double> collecting(final ToDoubleFunction<? super T> f) {
+        return Collector.of(
+                () -> new double[] {neutral()},
+                (acc, t) -> acc[0] = append(acc[0], f.applyAsDouble(t)),
+                (a, b) -> {
+                    a[0] = append(a[0], b[0]);
+                    return a;
+                },
+                acc -> acc[0]
+        );
+    }
+}
@@ -0,0 +1,21 @@
+package org.variantsync.functjonal.category;
+
+/**
+ * A binary operator over unboxed double values.
+ * This is the primitive counterpart of {@link Semigroup}&lt;Double&gt; that avoids boxing each value upon composition.
+ */
+@FunctionalInterface
+public interface DoubleSemigroup {
+    /**
+     * Composes the two values a and b and returns the result.
+     */
+    double append(final double a, final double b);
+
+    /**
+     * @return A semigroup over boxed values that composes values as this semigroup does.
+     *         Use this to pass this semigroup to APIs that work on objects only (e.g., MergeMap).
+     */
+    default Semigroup<Double> boxed() {
+        return this::append;
+    }
+}
@@ -0,0 +1,27 @@
+package org.variantsync.functjonal.category;
+
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+/**
+ * A monoid in which every value has an inverse w.r.t. composition.
+ * For every value a, append(a, invert(a)) and append(invert(a), a) equal the neutral element.
+ * Inverses allow to retract values that were previously appended to an aggregate instead of recomputing
+ * the aggregate from scratch.
+ * @param <G> The type that forms a group.
+ */
+public interface Group<G> extends Monoid<G> {
+    G invert(final G a);
+
+    static <N> Group<N> From(final Supplier<N> empty, final Semigroup<N> compose, final UnaryOperator<N> invert) {
+        return new LambdaGroup<>(empty, compose, invert);
+    }
+
+    /**
+     * Retracts b from a.
+     * @return append(a, invert(b))
+     */
+    default G subtract(final G a, final G b) {
+        return append(a, invert(b));
+    }
+}
@@ -0,0 +1,64 @@
+package org.variantsync.functjonal.category;
+
+import java.util.function.ToIntFunction;
+import java.util.stream.Collector;
+import java.util.stream.IntStream;
+
+/**
+ * A semigroup over unboxed int values with a neutral element w.r.t. composition.
+ * This is the primitive counterpart of {@link Monoid}&lt;Integer&gt; that neither boxes the values
+ * it composes nor the intermediate results when folding streams.
+ */
+public interface IntMonoid extends IntSemigroup {
+    /**
+     * Addition with 0 as neutral element.
+     */
+    IntMonoid SUM = From(0, Integer::sum);
+    /**
+     * Minimum with the largest int as neutral element.
+     */
+    IntMonoid MIN = From(Integer.MAX_VALUE, Math::min);
+    /**
+     * Maximum with the smallest int as neutral element.
+     */
+    IntMonoid MAX = From(Integer.MIN_VALUE, Math::max);
+
+    int neutral();
+
+    static IntMonoid From(final int neutral, final IntSemigroup compose) {
+        return new LambdaIntMonoid(neutral, compose);
+    }
+
+    /**
+     * @return A monoid over boxed values that composes values as this monoid does.
+     *         Use this to combine this monoid with other monoids (e.g., in Pair.MONOID).
+     */
+    @Override
+    default Monoid<Integer> boxed() {
+        return Monoid.From(this::neutral, this::append);
+    }
+
+    /**
+     * Composes all values in the given stream, starting with the neutral element.
+     */
+    default int fold(final IntStream values) {
+        return values.reduce(neutral(), this::append);
+    }
+
+    /**
+     * Creates a collector that maps each element to an int with the given function and composes these ints with
+     * this monoid.
+     * The ints are accumulated in a single unboxed slot per (partial) result.
+     */
+    default <T> Collector<T, ?, Integer> collecting(final ToIntFunction<? super T> f) {
+        return Collector.of(
+                () -> new int[] {neutral()},
+                (acc, t) -> acc[0] = append(acc[0], f.applyAsInt(t)),
+                (a, b) -> {
+                    a[0] = append(a[0], b[0]);
+                    return a;
+                },
+                acc -> acc[0]
+        );
+    }
+}
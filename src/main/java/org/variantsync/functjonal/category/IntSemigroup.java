@@ -0,0 +1,21 @@
+package org.variantsync.functjonal.category;
+
+/**
+ * A binary operator over unboxed int values.
+ * This is the primitive counterpart of {@link Semigroup}&lt;Integer&gt; that avoids boxing each value upon composition.
+ */
+@FunctionalInterface
+public interface IntSemigroup {
+    /**
+     * Composes the two values a and b and returns the result.
+     */
+    int append(final int a, final int b);
+
+    /**
+     * @return A semigroup over boxed values that composes values as this semigroup does.
+     *         Use this to pass this semigroup to APIs that work on objects only (e.g., MergeMap).
+     */
+    default Semigroup<Integer> boxed() {
+        return this::append;
+    }
+}
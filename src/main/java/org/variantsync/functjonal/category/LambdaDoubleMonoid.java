@@ -0,0 +1,8 @@
+package org.variantsync.functjonal.category;
+
+record LambdaDoubleMonoid(double neutral, DoubleSemigroup compose) implements DoubleMonoid {
+    @Override
+    public double append(final double a, final double b) {
+        return compose.append(a, b);
+    }
+}
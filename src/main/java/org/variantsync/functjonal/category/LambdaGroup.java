@@ -0,0 +1,21 @@
+package org.variantsync.functjonal.category;
+
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+record LambdaGroup<G>(Supplier<G> empty, Semigroup<G> compose, UnaryOperator<G> inverse) implements Group<G> {
+    @Override
+    public G neutral() {
+        return empty.get();
+    }
+
+    @Override
+    public G append(final G a, final G b) {
+        return compose.append(a, b);
+    }
+
+    @Override
+    public G invert(final G a) {
+        return inverse.apply(a);
+    }
+}
@@ -0,0 +1,8 @@
+package org.variantsync.functjonal.category;
+
+record LambdaIntMonoid(int neutral, IntSemigroup compose) implements IntMonoid {
+    @Override
+    public int append(final int a, final int b) {
+        return compose.append(a, b);
+    }
+}
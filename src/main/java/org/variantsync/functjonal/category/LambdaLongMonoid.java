@@ -0,0 +1,8 @@
+package org.variantsync.functjonal.category;
+
+record LambdaLongMonoid(long neutral, LongSemigroup compose) implements LongMonoid {
+    @Override
+    public long append(final long a, final long b) {
+        return compose.append(a, b);
+    }
+}
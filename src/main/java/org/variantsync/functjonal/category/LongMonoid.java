@@ -0,0 +1,76 @@
+package org.variantsync.functjonal.category;
+
+import java.util.function.ToLongFunction;
+import java.util.stream.Collector;
+import java.util.stream.LongStream;
+
+/**
+ * A semigroup over unboxed long values with a neutral element w.r.t. composition.
+ * This is the primitive counterpart of {@link Monoid}&lt;Long&gt; that neither boxes the values
+ * it composes nor the intermediate results when folding streams.
+ */
+public interface LongMonoid extends LongSemigroup {
+    /**
+     * Addition with 0 as neutral element.
+     */
+    LongMonoid SUM = From(0L, Long::sum);
+    /**
+     * Minimum with the largest long as neutral element.
+     */
+    LongMonoid MIN = From(Long.MAX_VALUE, Math::min);
+    /**
+     * Maximum with the smallest long as neutral element.
+     */
+    LongMonoid MAX = From(Long.MIN_VALUE, Math::max);
+    /**
+     * Counting is summation where each counted element contributes 1.
+     * @see #counting()
+     */
+    LongMonoid COUNT = SUM;
+
+    long neutral();
+
+    static LongMonoid From(final long neutral, final LongSemigroup compose) {
+        return new LambdaLongMonoid(neutral, compose);
+    }
+
+    /**
+     * @return A collector that counts the elements it visits.
+     */
+    static <T> Collector<T, ?, Long> counting() {
+        return COUNT.collecting(t -> 1L);
+    }
+
+    /**
+     * @return A monoid over boxed values that composes values as this monoid does.
+     *         Use this to combine this monoid with other monoids (e.g., in Pair.MONOID).
+     */
+    @Override
+    default Monoid<Long> boxed() {
+        return Monoid.From(this::neutral, this::append);
+    }
+
+    /**
+     * Composes all values in the given stream, starting with the neutral element.
+     */
+    default long fold(final LongStream values) {
+        return values.reduce(neutral(), this::append);
+    }
+
+    /**
+     * Creates a collector that maps each element to a long with the given function and composes these longs with
+     * this monoid.
+     * The longs are accumulated in a single unboxed slot per (partial) result.
+     */
+    default <T> Collector<T, ?, Long> collecting(final ToLongFunction<? super T> f) {
+        return Collector.of(
+                () -> new long[] {neutral()},
+                (acc, t) -> acc[0] = append(acc[0], f.applyAsLong(t)),
+                (a, b) -> {
+                    a[0] = append(a[0], b[0]);
+                    return a;
+                },
+                acc -> acc[0]
+        );
+    }
+}
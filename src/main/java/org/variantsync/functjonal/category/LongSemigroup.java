@@ -0,0 +1,21 @@
+package org.variantsync.functjonal.category;
+
+/**
+ * A binary operator over unboxed long values.
+ * This is the primitive counterpart of {@link Semigroup}&lt;Long&gt; that avoids boxing each value upon composition.
+ */
+@FunctionalInterface
+public interface LongSemigroup {
+    /**
+     * Composes the two values a and b and returns the result.
+     */
+    long append(final long a, final long b);
+
+    /**
+     * @return A semigroup over boxed values that composes values as this semigroup does.
+     *         Use this to pass this semigroup to APIs that work on objects only (e.g., MergeMap).
+     */
+    default Semigroup<Long> boxed() {
+        return this::append;
+    }
+}
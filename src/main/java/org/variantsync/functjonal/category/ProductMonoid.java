@@ -0,0 +1,269 @@
+package org.variantsync.functjonal.category;
+
+import org.variantsync.functjonal.Cast;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
+import java.util.stream.Collector;
+
+/**
+ * An n-ary product of monoids that aggregates several statistics over elements of type T in a single pass.
+ * In contrast to nesting Pair.MONOID, all aggregated values are stored in a single flat {@link Accumulator}
+ * with one mutable slot per monoid.
+ * Slots of primitive monoids ({@link IntMonoid}, {@link LongMonoid}, {@link DoubleMonoid}) are stored unboxed.
+ * Thus, accumulating an element does not allocate anything (except for what the mapping functions
+ * or object monoids allocate themselves).
+ *
+ * A ProductMonoid is created with a {@link Builder}.
+ * Each registered monoid yields a slot handle that is later used to read the aggregated value from an accumulator:
+ * <pre>{@code
+ * final ProductMonoid.Builder<Order> b = ProductMonoid.builder();
+ * final LongSlot count = b.count();
+ * final DoubleSlot revenue = b.add(DoubleMonoid.SUM, Order::price);
+ * final IntSlot maxItems = b.add(IntMonoid.MAX, Order::items);
+ * final ProductMonoid<Order> stats = b.build();
+ *
+ * final Accumulator result = orders.parallelStream().collect(stats.collector());
+ * result.get(revenue) / result.get(count);
+ * }</pre>
+ *
+ * A ProductMonoid is an in-place monoid over its accumulators such that partial results can be combined
+ * (e.g., when collecting parallel streams).
+ *
+ * @param <T> The type of elements to aggregate.
+ */
+public class ProductMonoid<T> implements InplaceMonoid<ProductMonoid.Accumulator> {
+    /**
+     * Handle to an int slot in an {@link Accumulator}.
+     */
+    public record IntSlot(int index) {}
+    /**
+     * Handle to a long slot in an {@link Accumulator}.
+     */
+    public record LongSlot(int index) {}
+    /**
+     * Handle to a double slot in an {@link Accumulator}.
+     */
+    public record DoubleSlot(int index) {}
+    /**
+     * Handle to an object slot in an {@link Accumulator}.
+     * @param <M> The type of the value stored in the slot.
+     */
+    public record Slot<M>(int index) {}
+
+    /**
+     * Flat mutable storage for the values of all monoids in a ProductMonoid.
+     * An accumulator can only be read with the slot handles of the ProductMonoid that created it.
+     */
+    public static final class Accumulator {
+        private final int[] ints;
+        private final long[] longs;
+        private final double[] doubles;
+        private final Object[] objects;
+
+        private Accumulator(final int[] ints, final long[] longs, final double[] doubles, final Object[] objects) {
+            this.ints = ints;
+            this.longs = longs;
+            this.doubles = doubles;
+            this.objects = objects;
+        }
+
+        public int get(final IntSlot slot) {
+            return ints[slot.index()];
+        }
+
+        public long get(final LongSlot slot) {
+            return longs[slot.index()];
+        }
+
+        public double get(final DoubleSlot slot) {
+            return doubles[slot.index()];
+        }
+
+        public <M> M get(final Slot<M> slot) {
+            return Cast.unchecked(objects[slot.index()]);
+        }
+    }
+
+    /**
+     * Collects the monoids to combine into a ProductMonoid.
+     * @param <T> The type of elements to aggregate.
+     */
+    public static class Builder<T> {
+        private final List<IntMonoid> intMonoids = new ArrayList<>();
+        private final List<ToIntFunction<? super T>> intFunctions = new ArrayList<>();
+        private final List<LongMonoid> longMonoids = new ArrayList<>();
+        private final List<ToLongFunction<? super T>> longFunctions = new ArrayList<>();
+        private final List<DoubleMonoid> doubleMonoids = new ArrayList<>();
+        private final List<ToDoubleFunction<? super T>> doubleFunctions = new ArrayList<>();
+        private final List<Monoid<?>> objectMonoids = new ArrayList<>();
+        private final List<Function<? super T, ?>> objectFunctions = new ArrayList<>();
+
+        private Builder() {}
+
+        /**
+         * Aggregates f(t) for each element t with the given monoid.
+         * @return The handle to read the aggregated value from an accumulator.
+         */
+        public IntSlot add(final IntMonoid m, final ToIntFunction<? super T> f) {
+            intMonoids.add(m);
+            intFunctions.add(f);
+            return new IntSlot(intMonoids.size() - 1);
+        }
+
+        /**
+         * Aggregates f(t) for each element t with the given monoid.
+         * @return The handle to read the aggregated value from an accumulator.
+         */
+        public LongSlot add(final LongMonoid m, final ToLongFunction<? super T> f) {
+            longMonoids.add(m);
+            longFunctions.add(f);
+            return new LongSlot(longMonoids.size() - 1);
+        }
+
+        /**
+         * Aggregates f(t) for each element t with the given monoid.
+         * @return The handle to read the aggregated value from an accumulator.
+         */
+        public DoubleSlot add(final DoubleMonoid m, final ToDoubleFunction<? super T> f) {
+            doubleMonoids.add(m);
+            doubleFunctions.add(f);
+            return new DoubleSlot(doubleMonoids.size() - 1);
+        }
+
+        /**
+         * Aggregates f(t) for each element t with the given monoid.
+         * If the given monoid is an {@link InplaceMonoid}, values are appended to the slot in place.
+         * @return The handle to read the aggregated value from an accumulator.
+         */
+        public <M> Slot<M> add(final Monoid<M> m, final Function<? super T, ? extends M> f) {
+            objectMonoids.add(m);
+            objectFunctions.add(f);
+            return new Slot<>(objectMonoids.size() - 1);
+        }
+
+        /**
+         * Counts the aggregated elements.
+         * @return The handle to read the count from an accumulator.
+         */
+        public LongSlot count() {
+            return add(LongMonoid.COUNT, t -> 1L);
+        }
+
+        /**
+         * @return A ProductMonoid over all monoids added to this builder so far.
+         */
+        public ProductMonoid<T> build() {
+            return new ProductMonoid<>(this);
+        }
+    }
+
+    private final IntMonoid[] intMonoids;
+    private final ToIntFunction<? super T>[] intFunctions;
+    private final int[] intNeutrals;
+    private final LongMonoid[] longMonoids;
+    private final ToLongFunction<? super T>[] longFunctions;
+    private final long[] longNeutrals;
+    private final DoubleMonoid[] doubleMonoids;
+    private final ToDoubleFunction<? super T>[] doubleFunctions;
+    private final double[] doubleNeutrals;
+    private final Monoid<Object>[] objectMonoids;
+    private final Function<? super T, ?>[] objectFunctions;
+
+    private ProductMonoid(final Builder<T> b) {
+        intMonoids = b.intMonoids.toArray(IntMonoid[]::new);
+        intFunctions = Cast.unchecked(b.intFunctions.toArray(ToIntFunction[]::new));
+        intNeutrals = new int[intMonoids.length];
+        for (int i = 0; i < intMonoids.length; ++i) {
+            intNeutrals[i] = intMonoids[i].neutral();
+        }
+
+        longMonoids = b.longMonoids.toArray(LongMonoid[]::new);
+        longFunctions = Cast.unchecked(b.longFunctions.toArray(ToLongFunction[]::new));
+        longNeutrals = new long[longMonoids.length];
+        for (int i = 0; i < longMonoids.length; ++i) {
+            longNeutrals[i] = longMonoids[i].neutral();
+        }
+
+        doubleMonoids = b.doubleMonoids.toArray(DoubleMonoid[]::new);
+        doubleFunctions = Cast.unchecked(b.doubleFunctions.toArray(ToDoubleFunction[]::new));
+        doubleNeutrals = new double[doubleMonoids.length];
+        for (int i = 0; i < doubleMonoids.length; ++i) {
+            doubleNeutrals[i] = doubleMonoids[i].neutral();
+        }
+
+        objectMonoids = Cast.unchecked(b.objectMonoids.toArray(Monoid[]::new));
+        objectFunctions = Cast.unchecked(b.objectFunctions.toArray(Function[]::new));
+    }
+
+    public static <T> Builder<T> builder() {
+        return new Builder<>();
+    }
+
+    /**
+     * @return A new accumulator in which each slot holds the neutral element of its monoid.
+     */
+    @Override
+    public Accumulator neutral() {
+        final Object[] objects = new Object[objectMonoids.length];
+        for (int i = 0; i < objects.length; ++i) {
+            // Object neutrals might be mutable so we have to create fresh ones.
+            objects[i] = objectMonoids[i].neutral();
+        }
+        return new Accumulator(intNeutrals.clone(), longNeutrals.clone(), doubleNeutrals.clone(), objects);
+    }
+
+    /**
+     * Appends the given element to each slot of the given accumulator.
+     */
+    public void accumulate(final Accumulator acc, final T element) {
+        for (int i = 0; i < intMonoids.length; ++i) {
+            acc.ints[i] = intMonoids[i].append(acc.ints[i], intFunctions[i].applyAsInt(element));
+        }
+        for (int i = 0; i < longMonoids.length; ++i) {
+            acc.longs[i] = longMonoids[i].append(acc.longs[i], longFunctions[i].applyAsLong(element));
+        }
+        for (int i = 0; i < doubleMonoids.length; ++i) {
+            acc.doubles[i] = doubleMonoids[i].append(acc.doubles[i], doubleFunctions[i].applyAsDouble(element));
+        }
+        for (int i = 0; i < objectMonoids.length; ++i) {
+            acc.objects[i] = objectMonoids[i].append(acc.objects[i], objectFunctions[i].apply(element));
+        }
+    }
+
+    /**
+     * Appends all slots of b to the respective slots of a.
+     */
+    @Override
+    public void appendToFirst(final Accumulator a, final Accumulator b) {
+        for (int i = 0; i < intMonoids.length; ++i) {
+            a.ints[i] = intMonoids[i].append(a.ints[i], b.ints[i]);
+        }
+        for (int i = 0; i < longMonoids.length; ++i) {
+            a.longs[i] = longMonoids[i].append(a.longs[i], b.longs[i]);
+        }
+        for (int i = 0; i < doubleMonoids.length; ++i) {
+            a.doubles[i] = doubleMonoids[i].append(a.doubles[i], b.doubles[i]);
+        }
+        for (int i = 0; i < objectMonoids.length; ++i) {
+            a.objects[i] = objectMonoids[i].append(a.objects[i], b.objects[i]);
+        }
+    }
+
+    /**
+     * @return A collector that aggregates elements into a single accumulator.
+     *         Partial accumulators of parallel streams are combined with this monoid.
+     */
+    public Collector<T, Accumulator, Accumulator> collector() {
+        return Collector.of(
+                this::neutral,
+                this::accumulate,
+                this::append,
+                Collector.Characteristics.IDENTITY_FINISH
+        );
+    }
+}
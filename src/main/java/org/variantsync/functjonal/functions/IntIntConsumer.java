@@ -0,0 +1,6 @@
+package org.variantsync.functjonal.functions;
+
+@FunctionalInterface
+public interface IntIntConsumer {
+    void accept(int a, int b);
+}
@@ -0,0 +1,6 @@
+package org.variantsync.functjonal.functions;
+
+@FunctionalInterface
+public interface LongLongConsumer {
+    void accept(long a, long b);
+}
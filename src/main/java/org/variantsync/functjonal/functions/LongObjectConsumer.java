@@ -0,0 +1,6 @@
+package org.variantsync.functjonal.functions;
+
+@FunctionalInterface
+public interface LongObjectConsumer<B> {
+    void accept(long a, B b);
+}
@@ -0,0 +1,163 @@
+package org.variantsync.functjonal.iteration;
+
+import org.variantsync.functjonal.category.InplaceSemigroup;
+import org.variantsync.functjonal.category.Semigroup;
+
+import java.util.ArrayList;
+import java.util.NoSuchElementException;
+import java.util.function.Function;
+
+/**
+ * A first-in-first-out queue of elements that can report the composition of all its elements at any time.
+ * Each element t is measured by a function measure: T -> A and the measures are composed in insertion order
+ * with a semigroup over A.
+ * As no inverses are required, elements cannot be subtracted from an aggregate upon eviction.
+ * Instead, this queue implements the two-stack algorithm:
+ * New elements are pushed onto a back stack that keeps a running aggregate.
+ * Elements are removed from a front stack that stores, for each element, the aggregate of that element and all
+ * elements that were inserted after it into the front stack.
+ * When the front stack runs empty, the back stack is flipped onto it.
+ * Thus, {@link #push(Object)}, {@link #pop()}, and {@link #aggregate()} run in amortized constant time, requiring
+ * amortized three appends of the semigroup per element.
+ * Because measures and stored aggregates are reused as operands of later appends, the semigroup must not modify
+ * its arguments (i.e., it must not be an {@link InplaceSemigroup}).
+ *
+ * @param <T> The type of elements in the window.
+ * @param <A> The type of the aggregate.
+ */
+public class SlidingWindow<T, A> {
+    private final Semigroup<A> semigroup;
+    private final Function<? super T, ? extends A> measure;
+
+    /**
+     * The front stack with the oldest element at the end.
+     */
+    private final ArrayList<T> frontElements = new ArrayList<>();
+    /**
+     * frontAggregates[i] is the composition of the measures of frontElements[i], frontElements[i - 1], ...,
+     * frontElements[0] (i.e., from the older to the newer elements).
+     */
+    private final ArrayList<A> frontAggregates = new ArrayList<>();
+
+    /**
+     * The back stack with the newest element at the end.
+     */
+    private final ArrayList<T> backElements = new ArrayList<>();
+    private final ArrayList<A> backMeasures = new ArrayList<>();
+    /**
+     * The composition of all backMeasures in order or null if the back stack is empty.
+     */
+    private A backAggregate = null;
+
+    /**
+     * Creates an empty window.
+     * @param semigroup Composes the measures of elements in the window.
+     * @param measure Computes the measure of each element when it enters the window.
+     * @throws IllegalArgumentException if the given semigroup is an {@link InplaceSemigroup}.
+     */
+    public SlidingWindow(final Semigroup<A> semigroup, final Function<? super T, ? extends A> measure) {
+        if (semigroup instanceof InplaceSemigroup) {
+            throw new IllegalArgumentException("SlidingWindow requires a semigroup that does not modify its arguments but got an InplaceSemigroup!");
+        }
+        this.semigroup = semigroup;
+        this.measure = measure;
+    }
+
+    /**
+     * Creates an empty window that aggregates its elements directly.
+     */
+    public static <A> SlidingWindow<A, A> of(final Semigroup<A> semigroup) {
+        return new SlidingWindow<>(semigroup, Function.identity());
+    }
+
+    /**
+     * Adds the given element as the newest element to this window.
+     */
+    public void push(final T element) {
+        final A m = measure.apply(element);
+        backElements.add(element);
+        backMeasures.add(m);
+        backAggregate = backAggregate == null ? m : semigroup.append(backAggregate, m);
+    }
+
+    /**
+     * Removes the oldest element from this window.
+     * @return The removed element.
+     * @throws NoSuchElementException if this window is empty.
+     */
+    public T pop() {
+        if (frontElements.isEmpty()) {
+            flip();
+        }
+        final int top = frontElements.size() - 1;
+        frontAggregates.remove(top);
+        return frontElements.remove(top);
+    }
+
+    /**
+     * @return The oldest element in this window.
+     * @throws NoSuchElementException if this window is empty.
+     */
+    public T oldest() {
+        if (!frontElements.isEmpty()) {
+            return frontElements.get(frontElements.size() - 1);
+        }
+        if (!backElements.isEmpty()) {
+            return backElements.get(0);
+        }
+        throw new NoSuchElementException("Window is empty!");
+    }
+
+    /**
+     * @return The composition of the measures of all elements in this window from the oldest to the newest element.
+     * @throws NoSuchElementException if this window is empty.
+     */
+    public A aggregate() {
+        if (frontElements.isEmpty()) {
+            if (backElements.isEmpty()) {
+                throw new NoSuchElementException("Window is empty!");
+            }
+            return backAggregate;
+        }
+
+        final A front = frontAggregates.get(frontAggregates.size() - 1);
+        return backElements.isEmpty() ? front : semigroup.append(front, backAggregate);
+    }
+
+    public int size() {
+        return frontElements.size() + backElements.size();
+    }
+
+    public boolean isEmpty() {
+        return frontElements.isEmpty() && backElements.isEmpty();
+    }
+
+    public void clear() {
+        frontElements.clear();
+        frontAggregates.clear();
+        backElements.clear();
+        backMeasures.clear();
+        backAggregate = null;
+    }
+
+    /**
+     * Moves all elements from the back stack to the front stack such that the oldest element ends on top.
+     */
+    private void flip() {
+        if (backElements.isEmpty()) {
+            throw new NoSuchElementException("Window is empty!");
+        }
+
+        A aggregate = null;
+        for (int i = backElements.size() - 1; i >= 0; --i) {
+            final A m = backMeasures.get(i);
+            aggregate = aggregate == null ? m : semigroup.append(m, aggregate);
+            frontElements.add(backElements.get(i));
+            frontAggregates.add(aggregate);
+        }
+
+        backElements.clear();
+        backMeasures.clear();
+        backAggregate = null;
+    }
+}
@@ -0,0 +1,95 @@
+package org.variantsync.functjonal.iteration;
+
+import org.variantsync.functjonal.category.Semigroup;
+
+import java.util.Iterator;
+import java.util.function.BiPredicate;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+
+/**
+ * An iterator over rolling aggregates of another iterator.
+ * For each element visited in the inner iterator, a SlidingWindowIterator returns the composition of the measures
+ * of all elements in the window ending at that element.
+ * Windows are either count-based (the last n elements) or time-based (all elements whose timestamp lies within
+ * a given duration before the timestamp of the newest element).
+ * Aggregates are maintained incrementally with a {@link SlidingWindow} such that each step takes amortized
+ * constant time, independent of the window size.
+ * @param <T> The type of elements to iterate over.
+ * @param <A> The type of aggregates to return.
+ */
+public class SlidingWindowIterator<T, A> implements Iterator<A> {
+    private final Iterator<T> inner;
+    private final SlidingWindow<T, A> window;
+    private final BiPredicate<SlidingWindow<T, A>, T> evict;
+
+    /**
+     * Wraps the given iterator and aggregates its elements in the given window.
+     * @param inner The iterator whose elements to aggregate.
+     * @param window The window to push all visited elements to.
+     * @param evict Decides whether the oldest element of the given window should be removed after the given newest
+     *              element was pushed. Evaluated repeatedly until it returns false.
+     */
+    public SlidingWindowIterator(final Iterator<T> inner, final SlidingWindow<T, A> window, final BiPredicate<SlidingWindow<T, A>, T> evict) {
+        this.inner = inner;
+        this.window = window;
+        this.evict = evict;
+    }
+
+    /**
+     * Aggregates the last windowSize elements for each visited element.
+     * The first windowSize - 1 aggregates cover fewer elements.
+     */
+    public static <T, A> SlidingWindowIterator<T, A> countBased(
+            final Iterator<T> inner,
+            final int windowSize,
+            final Function<? super T, ? extends A> measure,
+            final Semigroup<A> semigroup)
+    {
+        if (windowSize < 1) {
+            throw new IllegalArgumentException("Window size must be positive but was " + windowSize + "!");
+        }
+        return new SlidingWindowIterator<>(
+                inner,
+                new SlidingWindow<>(semigroup, measure),
+                (window, newest) -> window.size() > windowSize
+        );
+    }
+
+    /**
+     * Aggregates all elements with a timestamp in (timestamp(newest) - duration, timestamp(newest)] for each visited
+     * element newest.
+     * Timestamps have to be non-decreasing in the inner iterator.
+     */
+    public static <T, A> SlidingWindowIterator<T, A> timeBased(
+            final Iterator<T> inner,
+            final ToLongFunction<? super T> timestamp,
+            final long duration,
+            final Function<? super T, ? extends A> measure,
+            final Semigroup<A> semigroup)
+    {
+        if (duration < 1) {
+            throw new IllegalArgumentException("Window duration must be positive but was " + duration + "!");
+        }
+        return new SlidingWindowIterator<>(
+                inner,
+                new SlidingWindow<>(semigroup, measure),
+                (window, newest) -> timestamp.applyAsLong(window.oldest()) <= timestamp.applyAsLong(newest) - duration
+        );
+    }
+
+    @Override
+    public boolean hasNext() {
+        return inner.hasNext();
+    }
+
+    @Override
+    public A next() {
+        final T newest = inner.next();
+        window.push(newest);
+        while (evict.test(window, newest)) {
+            window.pop();
+        }
+        return window.aggregate();
+    }
+}
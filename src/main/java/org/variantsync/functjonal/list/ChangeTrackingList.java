@@ -0,0 +1,260 @@
+package org.variantsync.functjonal.list;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.Objects;
+import java.util.function.Consumer;
+
+/**
+ * A list decorator that publishes each modification as a {@link ListChange} to its subscribers.
+ * Bulk operations are published as a sequence of changes of single positions, in the order in which
+ * they are applied, such that subscribers can replay them one by one.
+ * This allows to maintain derived data incrementally instead of recomputing it from all elements after each change
+ * (see {@link MaterializedListView} and {@link IncrementalAggregate}).
+ *
+ * <p>All modifications have to go through this decorator (including its iterators and sub lists) to be published.
+ * Subscribers are notified synchronously after the wrapped list was modified.
+ *
+ * @param <T> element type
+ */
+public class ChangeTrackingList<T> extends ListDecorator<T> {
+    private final List<Consumer<? super ListChange<T>>> subscribers = new ArrayList<>();
+
+    public ChangeTrackingList(final List<T> list) {
+        super(list);
+    }
+
+    /**
+     * Registers the given subscriber to be notified of all future changes.
+     */
+    public void subscribe(final Consumer<? super ListChange<T>> subscriber) {
+        subscribers.add(Objects.requireNonNull(subscriber));
+    }
+
+    /**
+     * Stops notifying the given subscriber.
+     * @return True iff the given subscriber was subscribed.
+     */
+    public boolean unsubscribe(final Consumer<? super ListChange<T>> subscriber) {
+        return subscribers.remove(subscriber);
+    }
+
+    private void publish(final ListChange<T> change) {
+        for (final Consumer<? super ListChange<T>> subscriber : subscribers) {
+            subscriber.accept(change);
+        }
+    }
+
+    @Override
+    public boolean add(final T t) {
+        add(wrappee.size(), t);
+        return true;
+    }
+
+    @Override
+    public void add(final int index, final T element) {
+        wrappee.add(index, element);
+        publish(new ListChange.Insert<>(index, element));
+    }
+
+    @Override
+    public boolean addAll(final Collection<? extends T> c) {
+        return addAll(wrappee.size(), c);
+    }
+
+    @Override
+    public boolean addAll(final int index, final Collection<? extends T> c) {
+        int i = index;
+        for (final T t : c) {
+            add(i++, t);
+        }
+        return i != index;
+    }
+
+    @Override
+    public T set(final int index, final T element) {
+        final T old = wrappee.set(index, element);
+        publish(new ListChange.Set<>(index, old, element));
+        return old;
+    }
+
+    @Override
+    public T remove(final int index) {
+        final T removed = wrappee.remove(index);
+        publish(new ListChange.Remove<>(index, removed));
+        return removed;
+    }
+
+    @Override
+    public boolean remove(final Object o) {
+        final int index = wrappee.indexOf(o);
+        if (index < 0) {
+            return false;
+        }
+        remove(index);
+        return true;
+    }
+
+    @Override
+    public boolean removeAll(final Collection<?> c) {
+        return removeIf(c::contains);
+    }
+
+    @Override
+    public boolean retainAll(final Collection<?> c) {
+        return removeIf(t -> !c.contains(t));
+    }
+
+    /**
+     * Removes all elements from the back to the front such that each removal is cheap for array based lists and
+     * subscribers.
+     */
+    @Override
+    public void clear() {
+        for (int i = wrappee.size() - 1; i >= 0; --i) {
+            remove(i);
+        }
+    }
+
+    @Override
+    public Iterator<T> iterator() {
+        return listIterator();
+    }
+
+    @Override
+    public ListIterator<T> listIterator() {
+        return listIterator(0);
+    }
+
+    @Override
+    public ListIterator<T> listIterator(final int index) {
+        return new TrackingListIterator(wrappee.listIterator(index));
+    }
+
+    @Override
+    public List<T> subList(final int fromIndex, final int toIndex) {
+        Objects.checkFromToIndex(fromIndex, toIndex, wrappee.size());
+        return new SubList(fromIndex, toIndex - fromIndex);
+    }
+
+    /**
+     * Publishes modifications made through an iterator of the wrapped list.
+     */
+    private class TrackingListIterator implements ListIterator<T> {
+        private final ListIterator<T> inner;
+        /**
+         * Index and element of the element last returned by next or previous or -1 if there is none.
+         */
+        private int lastIndex = -1;
+        private T lastElement;
+
+        TrackingListIterator(final ListIterator<T> inner) {
+            this.inner = inner;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return inner.hasNext();
+        }
+
+        @Override
+        public T next() {
+            lastIndex = inner.nextIndex();
+            return lastElement = inner.next();
+        }
+
+        @Override
+        public boolean hasPrevious() {
+            return inner.hasPrevious();
+        }
+
+        @Override
+        public T previous() {
+            lastIndex = inner.previousIndex();
+            return lastElement = inner.previous();
+        }
+
+        @Override
+        public int nextIndex() {
+            return inner.nextIndex();
+        }
+
+        @Override
+        public int previousIndex() {
+            return inner.previousIndex();
+        }
+
+        @Override
+        public void remove() {
+            inner.remove();
+            publish(new ListChange.Remove<>(lastIndex, lastElement));
+            lastIndex = -1;
+        }
+
+        @Override
+        public void set(final T t) {
+            inner.set(t);
+            publish(new ListChange.Set<>(lastIndex, lastElement, t));
+            lastElement = t;
+        }
+
+        @Override
+        public void add(final T t) {
+            final int index = inner.nextIndex();
+            inner.add(t);
+            publish(new ListChange.Insert<>(index, t));
+            lastIndex = -1;
+        }
+    }
+
+    /**
+     * Range view that forwards all modifications to this list such that they are published.
+     */
+    private class SubList extends AbstractList<T> {
+        private final int offset;
+        private int size;
+
+        SubList(final int offset, final int size) {
+            this.offset = offset;
+            this.size = size;
+        }
+
+        @Override
+        public T get(final int index) {
+            Objects.checkIndex(index, size);
+            return ChangeTrackingList.this.get(offset + index);
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public T set(final int index, final T element) {
+            Objects.checkIndex(index, size);
+            return ChangeTrackingList.this.set(offset + index, element);
+        }
+
+        @Override
+        public void add(final int index, final T element) {
+            Objects.checkIndex(index, size + 1);
+            ChangeTrackingList.this.add(offset + index, element);
+            ++size;
+            ++modCount;
+        }
+
+        @Override
+        public T remove(final int index) {
+            Objects.checkIndex(index, size);
+            final T removed = ChangeTrackingList.this.remove(offset + index);
+            --size;
+            ++modCount;
+            return removed;
+        }
+    }
+}
@@ -1,9 +1,16 @@
 package org.variantsync.functjonal.list;
 
+import org.variantsync.functjonal.Cast;
+
 import java.util.AbstractSequentialList;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.ListIterator;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.RandomAccess;
+import java.util.Spliterator;
+import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.function.Predicate;
 
@@ -18,7 +25,13 @@ import java.util.function.Predicate;
  * <p>This view only provides sequential access to the underlying list (to make changes to the
  * backing list visible immediately). This implies that all random access methods and {@link size}
  * run in linear time, therefore specialized functions like {@code isEmpty} and iteration over the
- * list should be preferred.
+ * list should be preferred. Use {@link #indexed()} for random access and {@link #memoized(int)} to avoid
+ * applying expensive filter and map functions repeatedly.
+ *
+ * <p>Views created for other views are fused: Instead of stacking one view onto another, the
+ * filter and map functions are composed into a single function over the original backing list.
+ * Filters and maps without filtering don't allocate an {@link Optional} per element and views
+ * that only map provide {@code size} and {@code get} in the time of the backing list.
  *
  * <p>The filter and map function provided to this class may be called at arbitrary times and for an
  * arbitrary number of times for each element in the backing list. To get predictable behaviour and
@@ -36,51 +49,134 @@ import java.util.function.Predicate;
 public class FilteredMappedListView<Orig, New> extends AbstractSequentialList<New> {
     /**
      * The list whose elements are filtered and mapped to be viewed.
+     * If this view was created for another view, this is the backing list of that other view
+     * (see {@link fuse}) which is why its element type is not necessarily {@code Orig}.
      */
-    private final List<Orig> backingList;
+    private final List<?> backingList;
 
     /**
      * The filter and map functions.
      * This function is applied to each element in {@link backingList}. All elements which result in
-     * {@link Optional#empty} are not shown in this view. In contrast, elements for which this
-     * function returns an {@link Optional#of} are shown as the {@link Optional.get value} of this
-     * optional.
+     * {@code null} are not shown in this view. In contrast, elements for which this function returns
+     * a value are shown as this value.
+     * Using {@code null} instead of {@link Optional} avoids allocating an optional per element.
+     * Hence, views never contain {@code null}: {@link filter} rejects {@code null} elements and
+     * {@link map} rejects {@code null} results.
+     */
+    private final Function<Object, New> filterMap;
+
+    /**
+     * True iff {@link filterMap} never filters. Then, positions in this view coincide with positions
+     * in {@link backingList} which enables random access and constant time {@link size}.
      */
-    private final Function<Orig, Optional<New>> filterMap;
+    private final boolean preservesSize;
 
-    private FilteredMappedListView(List<Orig> backingList, Function<Orig, Optional<New>> filterMap) {
+    private FilteredMappedListView(List<?> backingList, Function<Object, New> filterMap, boolean preservesSize) {
         this.backingList = backingList;
         this.filterMap = filterMap;
+        this.preservesSize = preservesSize;
     }
 
     /**
      * Creates an unmodifiable view of the elements of {@code list} which satisfy
      * {@code predicate}.
+     * {@code list} must not contain {@code null}. Accessing a {@code null} element throws a
+     * {@link NullPointerException}.
+     * If {@code list} is a {@link FilteredMappedListView} itself, the views are fused into a single
+     * view over its backing list.
      */
     public static <E> FilteredMappedListView<E, E> filter(List<E> list, Predicate<E> predicate) {
-        return new FilteredMappedListView<>(list, (element) -> {
-            if (predicate.test(element)) {
-                return Optional.of(element);
-            } else {
-                return Optional.empty();
-            }
-        });
+        return fuse(list, (element) -> predicate.test(Objects.requireNonNull(element, "Filtered list contains null!")) ? element : null, false);
     }
 
     /**
      * Creates an unmodifiable view of the results of {@code mapper} applied to all elements of
-     * {@code list}
+     * {@code list}. The mapper must not return {@code null}. Accessing an element for which it does
+     * throws a {@link NullPointerException}.
+     * If {@code list} is a {@link FilteredMappedListView} itself, the views are fused into a single
+     * view over its backing list.
      */
     public static <Orig, New> FilteredMappedListView<Orig, New> map(List<Orig> list, Function<Orig, New> mapper) {
-        return new FilteredMappedListView<>(list, (element) -> Optional.of(mapper.apply(element)));
+        return fuse(list, (element) -> Objects.requireNonNull(mapper.apply(element), "Mapper returned null!"), true);
     }
 
     /**
      * Creates an unmodifiable view of the present results of {@code mapper} applied to all
      * elements of {@code list}
+     * If {@code list} is a {@link FilteredMappedListView} itself, the views are fused into a single
+     * view over its backing list.
      */
     public static <Orig, New> FilteredMappedListView<Orig, New> filterMap(List<Orig> list, Function<Orig, Optional<New>> filterMap) {
-        return new FilteredMappedListView<>(list, filterMap);
+        return fuse(list, (element) -> filterMap.apply(element).orElse(null), false);
+    }
+
+    /**
+     * Creates a view of {@code list} with the given filter and map function.
+     * If {@code list} is a view already, the function is composed with the function of that view
+     * such that only one view over the original backing list is created.
+     */
+    private static <Orig, New> FilteredMappedListView<Orig, New> fuse(List<Orig> list, Function<Orig, New> filterMap, boolean preservesSize) {
+        if (list instanceof FilteredMappedListView<?, Orig> view) {
+            return view.andThen(filterMap, preservesSize);
+        }
+        return new FilteredMappedListView<>(list, Cast.unchecked(filterMap), preservesSize);
+    }
+
+    private <O, Next> FilteredMappedListView<O, Next> andThen(Function<New, Next> next, boolean nextPreservesSize) {
+        final Function<Object, New> first = filterMap;
+        final Function<Object, Next> composed;
+        if (preservesSize) {
+            // The first function never filters so we don't have to check for `null`.
+            composed = (element) -> next.apply(first.apply(element));
+        } else {
+            composed = (element) -> {
+                New intermediate = first.apply(element);
+                return intermediate == null ? null : next.apply(intermediate);
+            };
+        }
+        return new FilteredMappedListView<>(backingList, composed, preservesSize && nextPreservesSize);
+    }
+
+    /**
+     * Creates a view of the same elements as this view in the current state of the backing list.
+     * In contrast to this view, the returned view is not affected by later modifications of the backing
+     * list and can thus be iterated while the backing list is modified, even by other threads.
+     * If the backing list is a {@link SnapshotList}, this takes its current snapshot in constant time.
+     * Otherwise, the backing list is copied into a {@link PersistentVector}, which must not happen concurrently
+     * to modifications of the backing list.
+     */
+    public FilteredMappedListView<Orig, New> snapshot() {
+        final List<?> frozen = backingList instanceof SnapshotList<?> s
+                ? s.snapshot()
+                : PersistentVector.from(backingList);
+        return new FilteredMappedListView<>(frozen, filterMap, preservesSize);
+    }
+
+    /**
+     * Creates an indexed view of the same elements as this view, in which {@code size} runs in constant time and
+     * {@code get} in the time of {@code get} on the backing list.
+     * The returned view implements {@link RandomAccess} iff the backing list does.
+     * @see IndexedFilteredMappedListView
+     */
+    public IndexedFilteredMappedListView<Orig, New> indexed() {
+        if (backingList instanceof RandomAccess) {
+            return new IndexedFilteredMappedListView.RandomAccessView<>(backingList, filterMap);
+        }
+        return new IndexedFilteredMappedListView<>(backingList, filterMap);
+    }
+
+    /**
+     * Creates an indexed view of the same elements as this view that caches up to the given number of
+     * mapped elements. Repeated scans of the returned view thus apply the filter and map function only once per
+     * element as long as the view has at most maximumCachedElements elements.
+     * The returned view implements {@link RandomAccess} iff the backing list does.
+     * @see MemoizingFilteredMappedListView
+     */
+    public MemoizingFilteredMappedListView<Orig, New> memoized(final int maximumCachedElements) {
+        if (backingList instanceof RandomAccess) {
+            return new MemoizingFilteredMappedListView.RandomAccessView<>(backingList, filterMap, maximumCachedElements);
+        }
+        return new MemoizingFilteredMappedListView<>(backingList, filterMap, maximumCachedElements);
     }
 
     private class FilterMapListIterator implements ListIterator<New> {
@@ -88,7 +184,7 @@ public class FilteredMappedListView<Orig, New> extends AbstractSequentialList<Ne
          * The iterator over the backing list at the position corresponding to the current position
          * of this iterator.
          */
-        private ListIterator<Orig> backingIterator;
+        private ListIterator<?> backingIterator;
 
         /**
          * A cache for the element which will be returned by {@link next()}.
@@ -118,7 +214,7 @@ public class FilteredMappedListView<Orig, New> extends AbstractSequentialList<Ne
         /**
          * The index of the element returned returned by {@link next()}.
          * This is not the same as {@code backingIterator.nextIndex()} as it doesn't count elements
-         * for which {@link filterMap} returns {@link Optional#empty}.
+         * for which {@link filterMap} returns {@code null}.
          */
         int nextIndex;
 
@@ -126,7 +222,7 @@ public class FilteredMappedListView<Orig, New> extends AbstractSequentialList<Ne
          * Creates a new iterator backed by {@code iterator} and moves to the index {@code index}.
          * The given iterator has to be at the start ({@code iterator.nextIndex()} has to be 0).
          */
-        public FilterMapListIterator(ListIterator<Orig> iterator, int index) {
+        public FilterMapListIterator(ListIterator<?> iterator, int index) {
             this.backingIterator = iterator;
             this.nextIndex = index;
             this.next = null;
@@ -215,9 +311,9 @@ public class FilteredMappedListView<Orig, New> extends AbstractSequentialList<Ne
          */
         private New retrieveNext() {
             while (backingIterator.hasNext()) {
-                Optional<New> element = filterMap.apply(backingIterator.next());
-                if (element.isPresent()) {
-                    return element.get();
+                New element = filterMap.apply(backingIterator.next());
+                if (element != null) {
+                    return element;
                 }
             }
 
@@ -230,9 +326,9 @@ public class FilteredMappedListView<Orig, New> extends AbstractSequentialList<Ne
          */
         private New retrievePrevious() {
             while (backingIterator.hasPrevious()) {
-                Optional<New> element = filterMap.apply(backingIterator.previous());
-                if (element.isPresent()) {
-                    return element.get();
+                New element = filterMap.apply(backingIterator.previous());
+                if (element != null) {
+                    return element;
                 }
             }
 
@@ -255,6 +351,102 @@ public class FilteredMappedListView<Orig, New> extends AbstractSequentialList<Ne
         }
     }
 
+    /**
+     * Spliterator that splits like the spliterator of the backing list and applies {@link filterMap}
+     * to the elements of each split. Thus, parallel streams over this view are as well balanced as
+     * parallel streams over the backing list and the filter and map function is applied in parallel.
+     */
+    private class FilterMapSpliterator implements Spliterator<New> {
+        private final Spliterator<?> backingSpliterator;
+
+        /**
+         * Buffer for the element consumed by {@link backingSpliterator} in {@link tryAdvance}.
+         */
+        private New current;
+
+        FilterMapSpliterator(Spliterator<?> backingSpliterator) {
+            this.backingSpliterator = backingSpliterator;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super New> action) {
+            current = null;
+            while (current == null) {
+                if (!backingSpliterator.tryAdvance(element -> current = filterMap.apply(element))) {
+                    return false;
+                }
+            }
+
+            action.accept(current);
+            current = null;
+            return true;
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super New> action) {
+            backingSpliterator.forEachRemaining(element -> {
+                New mapped = filterMap.apply(element);
+                if (mapped != null) {
+                    action.accept(mapped);
+                }
+            });
+        }
+
+        @Override
+        public Spliterator<New> trySplit() {
+            Spliterator<?> prefix = backingSpliterator.trySplit();
+            return prefix == null ? null : new FilterMapSpliterator(prefix);
+        }
+
+        /**
+         * Returns the estimated size of the backing spliterator which is an upper bound if
+         * elements might be filtered.
+         */
+        @Override
+        public long estimateSize() {
+            return backingSpliterator.estimateSize();
+        }
+
+        @Override
+        public int characteristics() {
+            // The number of elements is unknown due to filtering and mapped elements might be
+            // neither distinct nor sorted.
+            int kept = ORDERED | IMMUTABLE | CONCURRENT;
+            if (preservesSize) {
+                kept |= SIZED | SUBSIZED;
+            }
+            return (backingSpliterator.characteristics() & kept) | NONNULL;
+        }
+    }
+
+    @Override
+    public Spliterator<New> spliterator() {
+        return new FilterMapSpliterator(backingList.spliterator());
+    }
+
+    // Overridden because the default implementation iterates this view using a list iterator.
+    @Override
+    public void forEach(Consumer<? super New> action) {
+        backingList.forEach(element -> {
+            New mapped = filterMap.apply(element);
+            if (mapped != null) {
+                action.accept(mapped);
+            }
+        });
+    }
+
+    // Overridden because the default implementation traverses the backing list twice (it's calling
+    // `size()` before iterating).
+    @Override
+    public Object[] toArray() {
+        return stream().toArray();
+    }
+
+    @Override
+    public <T> T[] toArray(T[] array) {
+        return new ArrayList<>(this).toArray(array);
+    }
+
     @Override
     public ListIterator<New> listIterator(int index) {
         return new FilterMapListIterator(backingList.listIterator(), index);
@@ -262,6 +454,10 @@ public class FilteredMappedListView<Orig, New> extends AbstractSequentialList<Ne
 
     @Override
     public int size() {
+        if (preservesSize) {
+            return backingList.size();
+        }
+
         var iterator = listIterator();
         while (iterator.hasNext()) {
             iterator.next();
@@ -274,9 +470,24 @@ public class FilteredMappedListView<Orig, New> extends AbstractSequentialList<Ne
     // list one complete time (it's returning `size() == 0`).
     @Override
     public boolean isEmpty() {
+        if (preservesSize) {
+            return backingList.isEmpty();
+        }
+
         return !iterator().hasNext();
     }
 
+    // Overridden because the default implementation traverses this view up to `index`. Without
+    // filtering, positions coincide with positions in the backing list.
+    @Override
+    public New get(int index) {
+        if (preservesSize) {
+            return filterMap.apply(backingList.get(index));
+        }
+
+        return super.get(index);
+    }
+
     // Overridden because the default implementation (at least in OpenJDK) has to traverse the
     // backing list up to list three time (it's calling `listIterator(size())`). Unfortunately this
     // function always has to traverse the backing list at least once because it can't start at the
@@ -0,0 +1,77 @@
+package org.variantsync.functjonal.list;
+
+import org.variantsync.functjonal.category.Monoid;
+
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * A monoidal aggregate over the elements of a {@link ChangeTrackingList} that is kept up to date incrementally.
+ * The aggregate mirrors the measures of all elements in a balanced tree ordered by position in which each node
+ * caches the composition of the measures in its subtree. Each change of the source list, at any position, measures
+ * only the changed element and recomposes O(log n) measures. Thus, the aggregate never has to be recomputed
+ * from all elements.
+ * The monoid must not be an {@link org.variantsync.functjonal.category.InplaceMonoid} because cached measures are
+ * reused as operands of appends.
+ *
+ * <p>Call {@link #detach()} to stop maintaining this aggregate once it is no longer needed.
+ *
+ * @param <T> element type of the source list
+ * @param <M> type of the measure of elements
+ */
+public class IncrementalAggregate<T, M> {
+    private final ChangeTrackingList<T> source;
+    private final Function<? super T, ? extends M> measure;
+    private final SummaryTreeList<M, M> measures;
+    private final Consumer<ListChange<T>> subscriber = this::onChange;
+
+    /**
+     * Creates an aggregate over the given list that composes the measures of all elements with the given monoid.
+     * @throws IllegalArgumentException if the given monoid is an {@link org.variantsync.functjonal.category.InplaceMonoid}.
+     */
+    public IncrementalAggregate(final ChangeTrackingList<T> source, final Monoid<M> monoid, final Function<? super T, ? extends M> measure) {
+        this.source = source;
+        this.measure = measure;
+        this.measures = new SummaryTreeList<>(monoid, Function.identity(), source.unwrap().stream().<M>map(measure).toList());
+        source.subscribe(subscriber);
+    }
+
+    /**
+     * Creates an aggregate over the given list that composes all elements with the given monoid.
+     */
+    public static <M> IncrementalAggregate<M, M> of(final ChangeTrackingList<M> source, final Monoid<M> monoid) {
+        return new IncrementalAggregate<>(source, monoid, Function.identity());
+    }
+
+    private void onChange(final ListChange<T> change) {
+        if (change instanceof ListChange.Insert<T> insert) {
+            measures.add(insert.index(), measure.apply(insert.element()));
+        } else if (change instanceof ListChange.Remove<T>) {
+            measures.remove(change.index());
+        } else if (change instanceof ListChange.Set<T> set) {
+            measures.set(set.index(), measure.apply(set.newElement()));
+        }
+    }
+
+    /**
+     * @return The composition of the measures of all elements of the source list in list order.
+     */
+    public M get() {
+        return measures.fold();
+    }
+
+    /**
+     * @return The composition of the measures of the elements in [from, to) of the source list in list order.
+     */
+    public M get(final int from, final int to) {
+        return measures.fold(from, to);
+    }
+
+    /**
+     * Stops updating this aggregate upon changes of the source list.
+     * Afterwards, this aggregate keeps its current value.
+     */
+    public void detach() {
+        source.unsubscribe(subscriber);
+    }
+}
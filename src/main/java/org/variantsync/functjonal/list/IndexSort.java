@@ -0,0 +1,72 @@
+package org.variantsync.functjonal.list;
+
+import java.util.function.IntBinaryOperator;
+
+/**
+ * Sorts positions of columns stored in parallel arrays without boxing.
+ */
+final class IndexSort {
+    private IndexSort() {}
+
+    /**
+     * Computes a stable sort order of the positions [0, n).
+     * @param compare Compares the elements at two positions (as a Comparator would).
+     * @return The positions [0, n) sorted by compare where equal elements keep their relative order.
+     */
+    static int[] stableOrder(final int n, final IntBinaryOperator compare) {
+        int[] order = new int[n];
+        for (int i = 0; i < n; ++i) {
+            order[i] = i;
+        }
+
+        // Bottom-up merge sort
+        int[] buffer = new int[n];
+        for (int width = 1; width < n; width *= 2) {
+            for (int from = 0; from < n; from += 2 * width) {
+                final int mid = Math.min(from + width, n);
+                final int to = Math.min(from + 2 * width, n);
+                int l = from;
+                int r = mid;
+                int k = from;
+                while (l < mid && r < to) {
+                    // Take from the left on ties for stability.
+                    buffer[k++] = compare.applyAsInt(order[l], order[r]) <= 0 ? order[l++] : order[r++];
+                }
+                while (l < mid) {
+                    buffer[k++] = order[l++];
+                }
+                while (r < to) {
+                    buffer[k++] = order[r++];
+                }
+            }
+            final int[] swap = order;
+            order = buffer;
+            buffer = swap;
+        }
+        return order;
+    }
+
+    static Object[] permute(final Object[] column, final int[] order) {
+        final Object[] result = new Object[column.length];
+        for (int i = 0; i < order.length; ++i) {
+            result[i] = column[order[i]];
+        }
+        return result;
+    }
+
+    static int[] permute(final int[] column, final int[] order) {
+        final int[] result = new int[column.length];
+        for (int i = 0; i < order.length; ++i) {
+            result[i] = column[order[i]];
+        }
+        return result;
+    }
+
+    static long[] permute(final long[] column, final int[] order) {
+        final long[] result = new long[column.length];
+        for (int i = 0; i < order.length; ++i) {
+            result[i] = column[order[i]];
+        }
+        return result;
+    }
+}
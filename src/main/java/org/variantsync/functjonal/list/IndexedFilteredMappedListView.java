@@ -0,0 +1,152 @@
+package org.variantsync.functjonal.list;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.NoSuchElementException;
+import java.util.RandomAccess;
+import java.util.function.Function;
+
+/**
+ * Indexed variant of a {@link FilteredMappedListView}.
+ * This view lazily builds an index from positions in this view to positions in the backing list upon the first
+ * access. Afterwards, {@link #size()} runs in constant time and {@link #get(int)} in the time of
+ * {@code get} on the backing list plus one application of the filter and map function.
+ * If the backing list is {@link RandomAccess}, so is this view (see {@link FilteredMappedListView#indexed()}).
+ *
+ * <p>The index is rebuilt whenever a structural modification of the backing list is detected.
+ * As the modification count of a list is not accessible, modifications are detected by a
+ * fail-fast iterator of the backing list that is probed on each access, and by comparing the size
+ * of the backing list. Thus, detection is exact for lists with fail-fast iterators such as
+ * {@link java.util.ArrayList} and {@link java.util.LinkedList}.
+ * Replacing an element with {@code set} is not a structural modification. If that changes which elements pass
+ * the filter, {@link #invalidate()} has to be called.
+ *
+ * @param <Orig> the element type of the backing list
+ * @param <New> the element type of the view
+ */
+public class IndexedFilteredMappedListView<Orig, New> extends AbstractList<New> {
+    private final List<?> backingList;
+    private final Function<Object, New> filterMap;
+
+    /**
+     * Positions in the backing list of the elements in this view. Null if the index has to be rebuilt.
+     */
+    private int[] index;
+    private int size;
+    private int backingSize;
+    private ListIterator<?> probe;
+
+    IndexedFilteredMappedListView(final List<?> backingList, final Function<Object, New> filterMap) {
+        this.backingList = backingList;
+        this.filterMap = filterMap;
+    }
+
+    @Override
+    public New get(final int i) {
+        ensureIndex();
+        if (i < 0 || i >= size) {
+            throw new IndexOutOfBoundsException("Index " + i + " out of bounds for length " + size + "!");
+        }
+        return lookup(i);
+    }
+
+    /**
+     * Computes the element at the given valid position of this view from the backing list.
+     * Called by {@link #get(int)} after the index was validated.
+     */
+    protected New lookup(final int i) {
+        final New element = filterMap.apply(backingList.get(index[i]));
+        if (element == null) {
+            throw new ConcurrentModificationException("Element at index " + i + " no longer passes the filter!");
+        }
+        return element;
+    }
+
+    /**
+     * Called for each element of this view while the index is built.
+     * @param i position of the element in this view
+     * @param element the mapped element
+     */
+    protected void indexed(final int i, final New element) {
+    }
+
+    @Override
+    public int size() {
+        ensureIndex();
+        return size;
+    }
+
+    /**
+     * @return The position in the backing list of the element at the given position in this view.
+     */
+    public int backingIndexOf(final int i) {
+        ensureIndex();
+        if (i < 0 || i >= size) {
+            throw new IndexOutOfBoundsException("Index " + i + " out of bounds for length " + size + "!");
+        }
+        return index[i];
+    }
+
+    /**
+     * Discards the index such that it is rebuilt upon the next access.
+     * Call this after modifications to the backing list that are not detected automatically.
+     */
+    public void invalidate() {
+        index = null;
+        probe = null;
+    }
+
+    private void ensureIndex() {
+        if (index != null && !backingListChanged()) {
+            return;
+        }
+
+        int[] positions = new int[Math.max(8, backingList.size() / 2)];
+        int n = 0;
+        final ListIterator<?> it = backingList.listIterator();
+        while (it.hasNext()) {
+            final int position = it.nextIndex();
+            final New element = filterMap.apply(it.next());
+            if (element != null) {
+                if (n == positions.length) {
+                    positions = Arrays.copyOf(positions, Math.max(n + 1, Math.min(backingList.size(), 2 * n)));
+                }
+                indexed(n, element);
+                positions[n++] = position;
+            }
+        }
+
+        index = positions;
+        size = n;
+        backingSize = backingList.size();
+        probe = backingList.listIterator();
+    }
+
+    private boolean backingListChanged() {
+        if (backingList.size() != backingSize) {
+            invalidate();
+            return true;
+        }
+
+        try {
+            // Fail-fast iterators throw if the backing list was structurally modified since their creation.
+            if (probe.hasNext()) {
+                probe.next();
+                probe.previous();
+            }
+            return false;
+        } catch (final ConcurrentModificationException | NoSuchElementException e) {
+            invalidate();
+            return true;
+        }
+    }
+
+    static final class RandomAccessView<Orig, New> extends IndexedFilteredMappedListView<Orig, New> implements RandomAccess {
+        RandomAccessView(final List<?> backingList, final Function<Object, New> filterMap) {
+            super(backingList, filterMap);
+        }
+    }
+}
@@ -0,0 +1,185 @@
+package org.variantsync.functjonal.list;
+
+import org.variantsync.functjonal.Pair;
+import org.variantsync.functjonal.functions.IntIntConsumer;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.RandomAccess;
+import java.util.function.IntUnaryOperator;
+
+/**
+ * A list of pairs of ints that stores the first and second values of all pairs unboxed in two parallel arrays.
+ * Like {@link PairList} but without boxing.
+ * Use {@link #view()} to pass this list to APIs that require a list of {@link Pair}s.
+ */
+public class IntIntPairList {
+    private static final int DEFAULT_CAPACITY = 10;
+
+    private int[] firsts;
+    private int[] seconds;
+    private int size;
+
+    public IntIntPairList() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public IntIntPairList(final int capacity) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException("Capacity must not be negative but was " + capacity + "!");
+        }
+        this.firsts = new int[capacity];
+        this.seconds = new int[capacity];
+    }
+
+    private IntIntPairList(final int[] firsts, final int[] seconds, final int size) {
+        this.firsts = firsts;
+        this.seconds = seconds;
+        this.size = size;
+    }
+
+    public int getFirst(final int index) {
+        Objects.checkIndex(index, size);
+        return firsts[index];
+    }
+
+    public int getSecond(final int index) {
+        Objects.checkIndex(index, size);
+        return seconds[index];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void add(final int first, final int second) {
+        if (size == firsts.length) {
+            final int newCapacity = firsts.length + (firsts.length >> 1) + 1;
+            firsts = Arrays.copyOf(firsts, newCapacity);
+            seconds = Arrays.copyOf(seconds, newCapacity);
+        }
+        firsts[size] = first;
+        seconds[size] = second;
+        ++size;
+    }
+
+    public void set(final int index, final int first, final int second) {
+        Objects.checkIndex(index, size);
+        firsts[index] = first;
+        seconds[index] = second;
+    }
+
+    public void setFirst(final int index, final int first) {
+        Objects.checkIndex(index, size);
+        firsts[index] = first;
+    }
+
+    public void setSecond(final int index, final int second) {
+        Objects.checkIndex(index, size);
+        seconds[index] = second;
+    }
+
+    public void clear() {
+        size = 0;
+    }
+
+    /**
+     * Runs the given consumer on all pairs in list order.
+     */
+    public void forEach(final IntIntConsumer consumer) {
+        for (int i = 0; i < size; ++i) {
+            consumer.accept(firsts[i], seconds[i]);
+        }
+    }
+
+    /**
+     * @return A new list in which the first column is mapped with the given function and the second column is copied.
+     */
+    public IntIntPairList mapFirst(final IntUnaryOperator f) {
+        return new IntIntPairList(mapColumn(firsts, f), Arrays.copyOf(seconds, size), size);
+    }
+
+    /**
+     * @return A new list in which the second column is mapped with the given function and the first column is copied.
+     */
+    public IntIntPairList mapSecond(final IntUnaryOperator f) {
+        return new IntIntPairList(Arrays.copyOf(firsts, size), mapColumn(seconds, f), size);
+    }
+
+    /**
+     * @return A new list in which both columns are mapped with the given functions, one column after the other.
+     */
+    public IntIntPairList bimap(final IntUnaryOperator fst, final IntUnaryOperator snd) {
+        return new IntIntPairList(mapColumn(firsts, fst), mapColumn(seconds, snd), size);
+    }
+
+    private int[] mapColumn(final int[] column, final IntUnaryOperator f) {
+        final int[] result = new int[size];
+        for (int i = 0; i < size; ++i) {
+            result[i] = f.applyAsInt(column[i]);
+        }
+        return result;
+    }
+
+    /**
+     * Sorts this list by ascending first values. The sort is stable.
+     */
+    public void sortByFirst() {
+        final int[] column = firsts;
+        sort(IndexSort.stableOrder(size, (i, j) -> Integer.compare(column[i], column[j])));
+    }
+
+    /**
+     * Sorts this list by ascending second values. The sort is stable.
+     */
+    public void sortBySecond() {
+        final int[] column = seconds;
+        sort(IndexSort.stableOrder(size, (i, j) -> Integer.compare(column[i], column[j])));
+    }
+
+    private void sort(final int[] positions) {
+        firsts = IndexSort.permute(firsts, positions);
+        seconds = IndexSort.permute(seconds, positions);
+    }
+
+    /**
+     * @return A live view of this list with boxed pairs that are created on demand.
+     *         Setting pairs in the view sets them in this list.
+     */
+    public List<Pair<Integer, Integer>> view() {
+        return new View();
+    }
+
+    private class View extends AbstractList<Pair<Integer, Integer>> implements RandomAccess {
+        @Override
+        public Pair<Integer, Integer> get(final int index) {
+            Objects.checkIndex(index, size);
+            return new Pair<>(firsts[index], seconds[index]);
+        }
+
+        @Override
+        public Pair<Integer, Integer> set(final int index, final Pair<Integer, Integer> pair) {
+            final Pair<Integer, Integer> old = get(index);
+            IntIntPairList.this.set(index, pair.first(), pair.second());
+            return old;
+        }
+
+        @Override
+        public boolean add(final Pair<Integer, Integer> pair) {
+            IntIntPairList.this.add(pair.first(), pair.second());
+            ++modCount;
+            return true;
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package org.variantsync.functjonal.list;
+
+import java.util.List;
+
+/**
+ * A change of a single position of a list as published by a {@link ChangeTrackingList}.
+ * Indices refer to the state of the list right before the change.
+ * @param <T> element type of the changed list
+ */
+public sealed interface ListChange<T> {
+    int index();
+
+    /**
+     * Replays this change on the given list which has to be equal to the changed list before this change.
+     */
+    void applyTo(final List<? super T> list);
+
+    /**
+     * The given element was inserted at the given index.
+     */
+    record Insert<T>(int index, T element) implements ListChange<T> {
+        @Override
+        public void applyTo(final List<? super T> list) {
+            list.add(index, element);
+        }
+    }
+
+    /**
+     * The given element was removed from the given index.
+     */
+    record Remove<T>(int index, T element) implements ListChange<T> {
+        @Override
+        public void applyTo(final List<? super T> list) {
+            list.remove(index);
+        }
+    }
+
+    /**
+     * The element at the given index was replaced.
+     */
+    record Set<T>(int index, T oldElement, T newElement) implements ListChange<T> {
+        @Override
+        public void applyTo(final List<? super T> list) {
+            list.set(index, newElement);
+        }
+    }
+}
@@ -77,7 +77,7 @@ public class ListDecorator<T> implements List<T> {
 
     @Override
     public boolean addAll(final int index, final Collection<? extends T> c) {
-        return wrappee.addAll(c);
+        return wrappee.addAll(index, c);
     }
 
     @Override
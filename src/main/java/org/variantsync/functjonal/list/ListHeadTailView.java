@@ -1,33 +1,94 @@
 package org.variantsync.functjonal.list;
 
+import java.util.Collection;
+import java.util.ConcurrentModificationException;
 import java.util.Iterator;
 import java.util.List;
 import java.util.ListIterator;
 import java.util.Optional;
+import java.util.RandomAccess;
 
 /**
  * A view that separates a list into head (first element) and tail (remaining elements).
  * A ListHeadTailView thus shows a sublist of the given list starting at a certain index and ending at the end of
  * the viewed list.
+ * All indices of this view are relative to its head (i.e., get(0) returns the head).
+ *
+ * <p>Taking the {@link #tail()} does not copy the list and runs in constant time.
+ * Recursive head/tail processing thus runs in linear time:
+ * For {@link RandomAccess} lists, the head is accessed directly by its index.
+ * For sequential lists (e.g., {@link java.util.LinkedList}), each view hands the iterator that found its head
+ * over to its tail, such that the tail's head is found in a single step instead of walking from the start of the
+ * list again.
+ * Use {@link #of(List)} to obtain a view that is {@link RandomAccess} iff the given list is.
+ *
+ * <p>For sequential lists, {@link #head()} and {@link #tail()} move the iterator that a view shares with all its
+ * tails. Each such move holds the lock of that iterator, so views may be read from several threads as far as the
+ * viewed list permits concurrent reads. However, concurrent readers of views derived from the same view serialize
+ * on that lock and move the shared iterator back and forth, which may contend heavily. Give each thread its own
+ * view (e.g., via {@link #of(List)}) for concurrent head/tail processing of sequential lists.
+ * Views of {@link RandomAccess} lists hold no such state.
  */
 public class ListHeadTailView<T> extends ListDecorator<T> {
     private final int headIndex;
 
+    /**
+     * Iterator over the viewed list that is positioned near the head of this view. Null for {@link RandomAccess}
+     * lists. The cursor is only ever handed over to the tail of this view. As a view and its tails share the cursor,
+     * it is only moved while holding its lock.
+     */
+    private final ListIterator<T> cursor;
+
     public ListHeadTailView(final List<T> list) {
         this(list, 0);
     }
 
     public ListHeadTailView(final List<T> list, final int headIndex) {
+        this(list, headIndex, list instanceof RandomAccess || headIndex > list.size() ? null : list.listIterator(headIndex));
+    }
+
+    private ListHeadTailView(final List<T> list, final int headIndex, final ListIterator<T> cursor) {
         super(list);
+        if (headIndex < 0) {
+            throw new IllegalArgumentException("Head index must not be negative but was " + headIndex + "!");
+        }
         this.headIndex = headIndex;
+        this.cursor = cursor;
+    }
+
+    /**
+     * @return A view of the given list that is {@link RandomAccess} iff the given list is.
+     */
+    public static <T> ListHeadTailView<T> of(final List<T> list) {
+        if (list instanceof RandomAccess) {
+            return new RandomAccessView<>(list, 0);
+        }
+        return new ListHeadTailView<>(list, 0);
     }
 
     public boolean empty() {
-        return headIndex >= size();
+        return headIndex >= wrappee.size();
     }
 
     public T head() {
-        return get(headIndex);
+        if (empty()) {
+            throw new IndexOutOfBoundsException("Cannot take the head of an empty list!");
+        }
+
+        if (cursor != null) {
+            synchronized (cursor) {
+                try {
+                    if (moveCursorTo(headIndex)) {
+                        final T head = cursor.next();
+                        cursor.previous();
+                        return head;
+                    }
+                } catch (final ConcurrentModificationException e) {
+                    // The viewed list was modified since the cursor was created. Fall back to indexed access.
+                }
+            }
+        }
+        return wrappee.get(headIndex);
     }
 
     public Optional<T> safehead() {
@@ -38,8 +99,141 @@ public class ListHeadTailView<T> extends ListDecorator<T> {
         return Optional.of(head());
     }
 
+    /**
+     * Views all elements of this view except for the head.
+     * For sequential lists, this view's iterator is advanced and handed over to the tail such that
+     * the tail's head can be found in constant time.
+     */
     public ListHeadTailView<T> tail() {
-        return new ListHeadTailView<>(wrappee, headIndex + 1);
+        final int tailIndex = headIndex + 1;
+        if (wrappee instanceof RandomAccess) {
+            return new RandomAccessView<>(wrappee, tailIndex);
+        }
+
+        if (cursor != null) {
+            synchronized (cursor) {
+                try {
+                    if (moveCursorTo(tailIndex)) {
+                        return new ListHeadTailView<>(wrappee, tailIndex, cursor);
+                    }
+                } catch (final ConcurrentModificationException e) {
+                    // The viewed list was modified since the cursor was created. Let the tail create a new one.
+                }
+            }
+        }
+        return new ListHeadTailView<>(wrappee, tailIndex);
+    }
+
+    /**
+     * Moves the cursor such that its next index is the given index unless that takes more steps than indexed
+     * access to the viewed list. Must only be called while holding the lock of the cursor.
+     * @return True iff the cursor was moved to the given index.
+     */
+    private boolean moveCursorTo(final int index) {
+        final int distance = index - cursor.nextIndex();
+        if (Math.abs(distance) > Math.min(index, wrappee.size() - index)) {
+            return false;
+        }
+        for (int i = 0; i < distance; ++i) {
+            cursor.next();
+        }
+        for (int i = 0; i > distance; --i) {
+            cursor.previous();
+        }
+        return true;
+    }
+
+    /**
+     * @return The range of the viewed list that is visible in this view.
+     */
+    private List<T> range() {
+        final int size = wrappee.size();
+        return wrappee.subList(Math.min(headIndex, size), size);
+    }
+
+    @Override
+    public int size() {
+        return Math.max(0, wrappee.size() - headIndex);
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return empty();
+    }
+
+    @Override
+    public boolean contains(final Object o) {
+        return range().contains(o);
+    }
+
+    @Override
+    public boolean containsAll(final Collection<?> c) {
+        return range().containsAll(c);
+    }
+
+    @Override
+    public Object[] toArray() {
+        return range().toArray();
+    }
+
+    @Override
+    public <T1> T1[] toArray(final T1[] a) {
+        return range().toArray(a);
+    }
+
+    @Override
+    public boolean remove(final Object o) {
+        return range().remove(o);
+    }
+
+    @Override
+    public boolean addAll(final int index, final Collection<? extends T> c) {
+        return range().addAll(index, c);
+    }
+
+    @Override
+    public boolean removeAll(final Collection<?> c) {
+        return range().removeAll(c);
+    }
+
+    @Override
+    public boolean retainAll(final Collection<?> c) {
+        return range().retainAll(c);
+    }
+
+    @Override
+    public void clear() {
+        range().clear();
+    }
+
+    @Override
+    public T get(final int index) {
+        return range().get(index);
+    }
+
+    @Override
+    public T set(final int index, final T element) {
+        return range().set(index, element);
+    }
+
+    @Override
+    public void add(final int index, final T element) {
+        range().add(index, element);
+    }
+
+    @Override
+    public T remove(final int index) {
+        return range().remove(index);
+    }
+
+    @Override
+    public int indexOf(final Object o) {
+        return range().indexOf(o);
+    }
+
+    @Override
+    public int lastIndexOf(final Object o) {
+        return range().lastIndexOf(o);
     }
 
     @Override
@@ -52,14 +246,37 @@ public class ListHeadTailView<T> extends ListDecorator<T> {
         return listIterator(0);
     }
 
+    /**
+     * Jumps to the given index directly instead of iterating from the start of the viewed list.
+     */
     @Override
     public ListIterator<T> listIterator(final int index) {
-        int jumpsToDo = headIndex + index;
-        final ListIterator<T> i = wrappee.listIterator();
-        while (jumpsToDo > 0) {
-            i.next();
-            --jumpsToDo;
+        return range().listIterator(index);
+    }
+
+    @Override
+    public List<T> subList(final int fromIndex, final int toIndex) {
+        return range().subList(fromIndex, toIndex);
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        return o == this || (o instanceof List<?> && range().equals(o));
+    }
+
+    @Override
+    public int hashCode() {
+        return range().hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return range().toString();
+    }
+
+    private static final class RandomAccessView<T> extends ListHeadTailView<T> implements RandomAccess {
+        RandomAccessView(final List<T> list, final int headIndex) {
+            super(list, headIndex);
         }
-        return i;
     }
 }
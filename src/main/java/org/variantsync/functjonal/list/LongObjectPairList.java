@@ -0,0 +1,200 @@
+package org.variantsync.functjonal.list;
+
+import org.variantsync.functjonal.Cast;
+import org.variantsync.functjonal.Pair;
+import org.variantsync.functjonal.functions.LongObjectConsumer;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.RandomAccess;
+import java.util.function.Function;
+import java.util.function.LongUnaryOperator;
+
+/**
+ * A list of pairs of a long and an object that stores the first values unboxed and the second values in two
+ * parallel arrays.
+ * Like {@link PairList} but without boxing the first values (e.g., timestamps or ids).
+ * Use {@link #view()} to pass this list to APIs that require a list of {@link Pair}s.
+ *
+ * @param <B> type of second values
+ */
+public class LongObjectPairList<B> {
+    private static final int DEFAULT_CAPACITY = 10;
+
+    private long[] firsts;
+    private Object[] seconds;
+    private int size;
+
+    public LongObjectPairList() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public LongObjectPairList(final int capacity) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException("Capacity must not be negative but was " + capacity + "!");
+        }
+        this.firsts = new long[capacity];
+        this.seconds = new Object[capacity];
+    }
+
+    private LongObjectPairList(final long[] firsts, final Object[] seconds, final int size) {
+        this.firsts = firsts;
+        this.seconds = seconds;
+        this.size = size;
+    }
+
+    public long getFirst(final int index) {
+        Objects.checkIndex(index, size);
+        return firsts[index];
+    }
+
+    public B getSecond(final int index) {
+        Objects.checkIndex(index, size);
+        return Cast.unchecked(seconds[index]);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void add(final long first, final B second) {
+        if (size == firsts.length) {
+            final int newCapacity = firsts.length + (firsts.length >> 1) + 1;
+            firsts = Arrays.copyOf(firsts, newCapacity);
+            seconds = Arrays.copyOf(seconds, newCapacity);
+        }
+        firsts[size] = first;
+        seconds[size] = second;
+        ++size;
+    }
+
+    public void set(final int index, final long first, final B second) {
+        Objects.checkIndex(index, size);
+        firsts[index] = first;
+        seconds[index] = second;
+    }
+
+    public void setFirst(final int index, final long first) {
+        Objects.checkIndex(index, size);
+        firsts[index] = first;
+    }
+
+    public void setSecond(final int index, final B second) {
+        Objects.checkIndex(index, size);
+        seconds[index] = second;
+    }
+
+    public void clear() {
+        Arrays.fill(seconds, 0, size, null);
+        size = 0;
+    }
+
+    /**
+     * Runs the given consumer on all pairs in list order.
+     */
+    public void forEach(final LongObjectConsumer<? super B> consumer) {
+        for (int i = 0; i < size; ++i) {
+            consumer.accept(firsts[i], Cast.unchecked(seconds[i]));
+        }
+    }
+
+    /**
+     * @return A new list in which the first column is mapped with the given function and the second column is copied.
+     */
+    public LongObjectPairList<B> mapFirst(final LongUnaryOperator f) {
+        return new LongObjectPairList<>(mapFirstColumn(f), Arrays.copyOf(seconds, size), size);
+    }
+
+    /**
+     * @return A new list in which the second column is mapped with the given function and the first column is copied.
+     */
+    public <B2> LongObjectPairList<B2> mapSecond(final Function<? super B, ? extends B2> f) {
+        return new LongObjectPairList<>(Arrays.copyOf(firsts, size), mapSecondColumn(f), size);
+    }
+
+    /**
+     * @return A new list in which both columns are mapped with the given functions, one column after the other.
+     */
+    public <B2> LongObjectPairList<B2> bimap(final LongUnaryOperator fst, final Function<? super B, ? extends B2> snd) {
+        return new LongObjectPairList<>(mapFirstColumn(fst), mapSecondColumn(snd), size);
+    }
+
+    private long[] mapFirstColumn(final LongUnaryOperator f) {
+        final long[] result = new long[size];
+        for (int i = 0; i < size; ++i) {
+            result[i] = f.applyAsLong(firsts[i]);
+        }
+        return result;
+    }
+
+    private <B2> Object[] mapSecondColumn(final Function<? super B, ? extends B2> f) {
+        final Object[] result = new Object[size];
+        for (int i = 0; i < size; ++i) {
+            result[i] = f.apply(Cast.unchecked(seconds[i]));
+        }
+        return result;
+    }
+
+    /**
+     * Sorts this list by ascending first values. The sort is stable.
+     */
+    public void sortByFirst() {
+        final long[] column = firsts;
+        sort(IndexSort.stableOrder(size, (i, j) -> Long.compare(column[i], column[j])));
+    }
+
+    /**
+     * Sorts this list by the second values. The sort is stable.
+     */
+    public void sortBySecond(final Comparator<? super B> order) {
+        final Object[] column = seconds;
+        sort(IndexSort.stableOrder(size, (i, j) -> order.compare(Cast.unchecked(column[i]), Cast.unchecked(column[j]))));
+    }
+
+    private void sort(final int[] positions) {
+        firsts = IndexSort.permute(firsts, positions);
+        seconds = IndexSort.permute(seconds, positions);
+    }
+
+    /**
+     * @return A live view of this list with boxed pairs that are created on demand.
+     *         Setting pairs in the view sets them in this list.
+     */
+    public List<Pair<Long, B>> view() {
+        return new View();
+    }
+
+    private class View extends AbstractList<Pair<Long, B>> implements RandomAccess {
+        @Override
+        public Pair<Long, B> get(final int index) {
+            Objects.checkIndex(index, size);
+            return new Pair<>(firsts[index], Cast.unchecked(seconds[index]));
+        }
+
+        @Override
+        public Pair<Long, B> set(final int index, final Pair<Long, B> pair) {
+            final Pair<Long, B> old = get(index);
+            LongObjectPairList.this.set(index, pair.first(), pair.second());
+            return old;
+        }
+
+        @Override
+        public boolean add(final Pair<Long, B> pair) {
+            LongObjectPairList.this.add(pair.first(), pair.second());
+            ++modCount;
+            return true;
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package org.variantsync.functjonal.list;
+
+import org.variantsync.functjonal.category.IntMonoid;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.RandomAccess;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Unmodifiable list of the filtered and mapped elements of a {@link ChangeTrackingList} that is kept up to date
+ * incrementally.
+ * In contrast to a {@link FilteredMappedListView}, which evaluates its filter and map function upon each access,
+ * this list stores the mapped elements and updates them upon each change of the source list.
+ * A change applies the filter and map function only to the changed element. Thus, after construction,
+ * maintaining this list costs O(changes) evaluations of the filter and map function instead of O(n) per rescan.
+ * The mapped elements are stored in a balanced tree in source order that counts the elements passing the filter
+ * in each subtree. Thus, each change of the source list, at any position, is applied in O(log n) and
+ * {@link #get(int)} locates an element in O(log n). Iteration takes amortized constant time per element of the
+ * source list.
+ *
+ * <p>Call {@link #detach()} to stop maintaining this list once it is no longer needed.
+ *
+ * @param <Orig> element type of the source list
+ * @param <New> element type of this list
+ */
+public class MaterializedListView<Orig, New> extends AbstractList<New> implements RandomAccess {
+    private final ChangeTrackingList<Orig> source;
+    /**
+     * Returns null for elements that are filtered.
+     */
+    private final Function<? super Orig, ? extends New> filterMap;
+    private final Consumer<ListChange<Orig>> subscriber = this::onChange;
+
+    /**
+     * Holds the mapped element for each element of the source list that passes the filter and null otherwise.
+     * Each element is measured by 1 if it passed and 0 otherwise, such that folding a prefix of the source list
+     * yields the number of elements of this list within that prefix.
+     */
+    private final SummaryTreeList<New, Integer> mirror;
+
+    private MaterializedListView(final ChangeTrackingList<Orig> source, final Function<? super Orig, ? extends New> filterMap) {
+        this.source = source;
+        this.filterMap = filterMap;
+
+        final List<New> initial = new ArrayList<>(source.size());
+        for (final Orig element : source.unwrap()) {
+            initial.add(filterMap.apply(element));
+        }
+        this.mirror = new SummaryTreeList<>(IntMonoid.SUM.boxed(), mapped -> mapped == null ? 0 : 1, initial);
+        source.subscribe(subscriber);
+    }
+
+    /**
+     * Creates a materialized list of the elements of the given list that satisfy the given predicate.
+     */
+    public static <E> MaterializedListView<E, E> filter(final ChangeTrackingList<E> list, final Predicate<? super E> predicate) {
+        return new MaterializedListView<>(list, element -> predicate.test(element) ? element : null);
+    }
+
+    /**
+     * Creates a materialized list of the results of the given mapper applied to all elements of the given list.
+     * The mapper must not return null.
+     */
+    public static <Orig, New> MaterializedListView<Orig, New> map(final ChangeTrackingList<Orig> list, final Function<? super Orig, ? extends New> mapper) {
+        return new MaterializedListView<>(list, mapper);
+    }
+
+    /**
+     * Creates a materialized list of the present results of the given function applied to all elements of the given
+     * list.
+     */
+    public static <Orig, New> MaterializedListView<Orig, New> filterMap(final ChangeTrackingList<Orig> list, final Function<? super Orig, Optional<New>> filterMap) {
+        return new MaterializedListView<>(list, element -> filterMap.apply(element).orElse(null));
+    }
+
+    private void onChange(final ListChange<Orig> change) {
+        if (change instanceof ListChange.Insert<Orig> insert) {
+            mirror.add(insert.index(), filterMap.apply(insert.element()));
+        } else if (change instanceof ListChange.Remove<Orig>) {
+            mirror.remove(change.index());
+        } else if (change instanceof ListChange.Set<Orig> set) {
+            mirror.set(set.index(), filterMap.apply(set.newElement()));
+        }
+        ++modCount;
+    }
+
+    /**
+     * Stops updating this list upon changes of the source list.
+     * Afterwards, this list keeps its current elements.
+     */
+    public void detach() {
+        source.unsubscribe(subscriber);
+    }
+
+    @Override
+    public New get(final int index) {
+        Objects.checkIndex(index, size());
+        return mirror.get(mirror.search(passed -> passed > index));
+    }
+
+    @Override
+    public int size() {
+        return mirror.fold();
+    }
+
+    @Override
+    public Iterator<New> iterator() {
+        return new Iterator<>() {
+            private final Iterator<New> inner = mirror.iterator();
+            private int remaining = size();
+
+            @Override
+            public boolean hasNext() {
+                return remaining > 0;
+            }
+
+            @Override
+            public New next() {
+                if (remaining == 0) {
+                    throw new NoSuchElementException();
+                }
+                New next;
+                do {
+                    next = inner.next();
+                } while (next == null);
+                --remaining;
+                return next;
+            }
+        };
+    }
+}
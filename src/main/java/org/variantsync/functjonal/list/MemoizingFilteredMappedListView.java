@@ -0,0 +1,117 @@
+package org.variantsync.functjonal.list;
+
+import org.variantsync.functjonal.Cast;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.function.Function;
+
+/**
+ * Memoizing variant of a {@link FilteredMappedListView}.
+ * In addition to the index of an {@link IndexedFilteredMappedListView}, this view caches the mapped elements
+ * by their position in this view such that repeated scans apply the filter and map function only once per element.
+ * The cache is a direct-mapped array indexed by position: The element at position i is cached in slot
+ * i mod c, where the capacity c grows with the accessed positions up to the given bound. Thus, views with at most
+ * that many elements are cached entirely. In larger views, positions that share a slot evict each other and
+ * evicted elements are mapped again upon access.
+ * The cache is cleared whenever the index is invalidated (see {@link IndexedFilteredMappedListView}).
+ *
+ * @param <Orig> the element type of the backing list
+ * @param <New> the element type of the view
+ */
+public class MemoizingFilteredMappedListView<Orig, New> extends IndexedFilteredMappedListView<Orig, New> {
+    private static final Object[] NO_ELEMENTS = {};
+    private static final int[] NO_POSITIONS = {};
+
+    private final int maximumCapacity;
+    /**
+     * cachedElements[s] is the element at position cachedPositions[s] in this view or undefined if
+     * cachedPositions[s] is -1. Both arrays have the same length.
+     */
+    private Object[] cachedElements = NO_ELEMENTS;
+    private int[] cachedPositions = NO_POSITIONS;
+
+    MemoizingFilteredMappedListView(
+            final List<?> backingList,
+            final Function<Object, New> filterMap,
+            final int maximumCachedElements)
+    {
+        super(backingList, filterMap);
+        if (maximumCachedElements < 0) {
+            throw new IllegalArgumentException("Maximum number of cached elements must not be negative but was " + maximumCachedElements + "!");
+        }
+        this.maximumCapacity = maximumCachedElements;
+    }
+
+    @Override
+    protected New lookup(final int i) {
+        if (cachedPositions.length > 0) {
+            final int slot = i % cachedPositions.length;
+            if (cachedPositions[slot] == i) {
+                return Cast.unchecked(cachedElements[slot]);
+            }
+        }
+
+        final New element = super.lookup(i);
+        indexed(i, element);
+        return element;
+    }
+
+    @Override
+    protected void indexed(final int i, final New element) {
+        if (i >= cachedPositions.length) {
+            grow(i);
+        }
+        if (cachedPositions.length > 0) {
+            final int slot = i % cachedPositions.length;
+            cachedPositions[slot] = i;
+            cachedElements[slot] = element;
+        }
+    }
+
+    @Override
+    public void invalidate() {
+        super.invalidate();
+        cachedElements = NO_ELEMENTS;
+        cachedPositions = NO_POSITIONS;
+    }
+
+    /**
+     * Grows the cache such that it has a slot of its own for the given position unless the maximum capacity
+     * is reached. Cached elements are kept.
+     */
+    private void grow(final int i) {
+        int capacity = Math.max(8, cachedPositions.length);
+        while (capacity <= i && capacity < maximumCapacity) {
+            capacity = capacity > maximumCapacity / 2 ? maximumCapacity : 2 * capacity;
+        }
+        capacity = Math.min(capacity, maximumCapacity);
+        if (capacity <= cachedPositions.length) {
+            return;
+        }
+
+        final Object[] elements = new Object[capacity];
+        final int[] positions = new int[capacity];
+        Arrays.fill(positions, -1);
+        for (int slot = 0; slot < cachedPositions.length; ++slot) {
+            final int position = cachedPositions[slot];
+            if (position >= 0) {
+                positions[position % capacity] = position;
+                elements[position % capacity] = cachedElements[slot];
+            }
+        }
+        cachedElements = elements;
+        cachedPositions = positions;
+    }
+
+    static final class RandomAccessView<Orig, New> extends MemoizingFilteredMappedListView<Orig, New> implements RandomAccess {
+        RandomAccessView(
+                final List<?> backingList,
+                final Function<Object, New> filterMap,
+                final int maximumCachedElements)
+        {
+            super(backingList, filterMap, maximumCachedElements);
+        }
+    }
+}
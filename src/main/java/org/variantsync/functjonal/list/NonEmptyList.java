@@ -1,17 +1,40 @@
 package org.variantsync.functjonal.list;
 
+import org.variantsync.functjonal.Cast;
+import org.variantsync.functjonal.category.InplaceSemigroup;
+import org.variantsync.functjonal.category.Semigroup;
+
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
+import java.util.RandomAccess;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * A list that holds at least one element.
  * It does not allow removing elements once they are inserted.
  *
+ * <p>As a non-empty list always has a first element, it can be reduced with a {@link Semigroup} (i.e., without
+ * a neutral element), see {@link #reduce1(Semigroup)}.
+ * Lists with at least {@link #PARALLEL_THRESHOLD} elements are reduced in parallel on the common fork-join pool by
+ * splitting them into halves recursively. The semigroup thus has to be associative but not commutative.
+ *
  * @param <T> Type of elements that are contained in this list.
  */
 public class NonEmptyList<T> extends ListDecorator<T> {
     private final static String ERROR_MESSAGE = "Operation disallowed as it could make this list become empty!";
 
+    /**
+     * Lists with fewer elements are reduced sequentially as splitting them across threads costs more than it saves.
+     * Larger lists are split until each part has fewer elements.
+     */
+    public static final int PARALLEL_THRESHOLD = 1 << 13;
+
     public NonEmptyList(final List<T> list) {
         super(list);
         if (list.isEmpty()) {
@@ -23,6 +46,139 @@ public class NonEmptyList<T> extends ListDecorator<T> {
         return wrappee.get(0);
     }
 
+    /**
+     * Composes all elements of this list in list order with the given semigroup.
+     * Large lists are reduced in parallel (see {@link #PARALLEL_THRESHOLD}).
+     * @param semigroup An associative operation that does not modify its arguments.
+     * @throws IllegalArgumentException if the given semigroup is an {@link InplaceSemigroup}.
+     *         Use {@link #collect1(Function, BiConsumer, InplaceSemigroup)} to reduce into mutable accumulators.
+     */
+    public T reduce1(final Semigroup<T> semigroup) {
+        return mapReduce1(Function.identity(), semigroup);
+    }
+
+    /**
+     * Maps all elements of this list with the given function and composes the results in list order with the given
+     * semigroup.
+     * Large lists are mapped and reduced in parallel (see {@link #PARALLEL_THRESHOLD}).
+     * @param semigroup An associative operation that does not modify its arguments.
+     * @throws IllegalArgumentException if the given semigroup is an {@link InplaceSemigroup} as it would modify
+     *         the first (mapped) element of each reduced part.
+     *         Use {@link #collect1(Function, BiConsumer, InplaceSemigroup)} to reduce into mutable accumulators.
+     */
+    public <M> M mapReduce1(final Function<? super T, ? extends M> f, final Semigroup<M> semigroup) {
+        if (semigroup instanceof InplaceSemigroup) {
+            throw new IllegalArgumentException("Cannot reduce with an InplaceSemigroup as it would modify elements of this list! Use collect1 instead!");
+        }
+        return reduce((list, from, to) -> {
+            M result = f.apply(list.get(from));
+            for (int i = from + 1; i < to; ++i) {
+                result = semigroup.append(result, f.apply(list.get(i)));
+            }
+            return result;
+        }, semigroup);
+    }
+
+    /**
+     * Reduces this list into mutable accumulators without allocating an intermediate value per element.
+     * Each part of this list that is reduced sequentially creates one accumulator from its first element and
+     * accumulates all further elements into it. Accumulators of adjacent parts are combined in place.
+     * Large lists are reduced in parallel (see {@link #PARALLEL_THRESHOLD}).
+     * @param init Creates a new accumulator from a single element.
+     * @param accumulator Appends an element to an accumulator in place.
+     * @param combiner Appends an accumulator to another accumulator in place. Has to be associative.
+     * @return The accumulator of all elements in list order.
+     */
+    public <A> A collect1(
+            final Function<? super T, ? extends A> init,
+            final BiConsumer<? super A, ? super T> accumulator,
+            final InplaceSemigroup<A> combiner)
+    {
+        return reduce((list, from, to) -> {
+            final A result = init.apply(list.get(from));
+            for (int i = from + 1; i < to; ++i) {
+                accumulator.accept(result, list.get(i));
+            }
+            return result;
+        }, combiner);
+    }
+
+    /**
+     * @return A new non-empty list holding the results of the given function applied to all elements of this list.
+     *         Large lists are mapped in parallel (see {@link #PARALLEL_THRESHOLD}).
+     */
+    public <M> NonEmptyList<M> map(final Function<? super T, ? extends M> f) {
+        if (wrappee.size() >= PARALLEL_THRESHOLD) {
+            return new NonEmptyList<>(indexable().parallelStream().<M>map(f).collect(Collectors.toCollection(ArrayList::new)));
+        }
+
+        final List<M> result = new ArrayList<>(wrappee.size());
+        for (final T t : wrappee) {
+            result.add(f.apply(t));
+        }
+        return new NonEmptyList<>(result);
+    }
+
+    /**
+     * Reduces a range [from, to) of a list with at least one element sequentially.
+     */
+    @FunctionalInterface
+    private interface RangeReduction<T, A> {
+        A reduce(final List<T> list, final int from, final int to);
+    }
+
+    private <A> A reduce(final RangeReduction<T, A> leaf, final Semigroup<A> join) {
+        final List<T> list = indexable();
+        if (list.size() < PARALLEL_THRESHOLD) {
+            return leaf.reduce(list, 0, list.size());
+        }
+        return ForkJoinPool.commonPool().invoke(new ReductionTask<>(list, 0, list.size(), leaf, join));
+    }
+
+    /**
+     * @return The wrapped list if it provides efficient random access or a random access copy of it otherwise.
+     */
+    private List<T> indexable() {
+        if (wrappee instanceof RandomAccess) {
+            return wrappee;
+        }
+        return Cast.unchecked(Arrays.asList(wrappee.toArray()));
+    }
+
+    /**
+     * Reduces a range of a list by splitting it into halves until it is small enough to be reduced sequentially.
+     * The left half is always joined with the right half (and not vice versa) such that the list order is preserved.
+     */
+    private static final class ReductionTask<T, A> extends RecursiveTask<A> {
+        private static final long serialVersionUID = 1L;
+
+        private final List<T> list;
+        private final int from;
+        private final int to;
+        private final RangeReduction<T, A> leaf;
+        private final Semigroup<A> join;
+
+        ReductionTask(final List<T> list, final int from, final int to, final RangeReduction<T, A> leaf, final Semigroup<A> join) {
+            this.list = list;
+            this.from = from;
+            this.to = to;
+            this.leaf = leaf;
+            this.join = join;
+        }
+
+        @Override
+        protected A compute() {
+            if (to - from < PARALLEL_THRESHOLD) {
+                return leaf.reduce(list, from, to);
+            }
+            final int mid = (from + to) >>> 1;
+            final ReductionTask<T, A> left = new ReductionTask<>(list, from, mid, leaf, join);
+            left.fork();
+            final A right = new ReductionTask<>(list, mid, to, leaf, join).compute();
+            return join.append(left.join(), right);
+        }
+    }
+
     @Override
     public boolean remove(final Object o) {
         throw new UnsupportedOperationException(ERROR_MESSAGE);
@@ -0,0 +1,257 @@
+package org.variantsync.functjonal.list;
+
+import org.variantsync.functjonal.Cast;
+import org.variantsync.functjonal.Pair;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.RandomAccess;
+import java.util.function.Function;
+
+/**
+ * A list of pairs that stores the first and second values of all pairs in two parallel arrays (columns) instead of
+ * storing one {@link Pair} object per element.
+ * This saves the object header and the reference of each pair and keeps the values of each column adjacent in
+ * memory. Pairs are created on demand by {@link #get(int)}. Prefer the column accessors
+ * ({@link #getFirst(int)}, {@link #getSecond(int)}) and the column-wise bulk operations ({@link #mapFirst},
+ * {@link #mapSecond}, {@link #bimap}, {@link #sortByFirst}, {@link #sortBySecond}) to avoid creating pairs.
+ * See {@link IntIntPairList} and {@link LongObjectPairList} for variants with unboxed columns.
+ *
+ * @param <A> type of first values
+ * @param <B> type of second values
+ */
+public class PairList<A, B> extends AbstractList<Pair<A, B>> implements RandomAccess {
+    private static final int DEFAULT_CAPACITY = 10;
+
+    private Object[] firsts;
+    private Object[] seconds;
+    private int size;
+
+    public PairList() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public PairList(final int capacity) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException("Capacity must not be negative but was " + capacity + "!");
+        }
+        this.firsts = new Object[capacity];
+        this.seconds = new Object[capacity];
+    }
+
+    private PairList(final Object[] firsts, final Object[] seconds, final int size) {
+        this.firsts = firsts;
+        this.seconds = seconds;
+        this.size = size;
+    }
+
+    public static <A, B> PairList<A, B> from(final Collection<? extends Pair<? extends A, ? extends B>> pairs) {
+        final PairList<A, B> result = new PairList<>(pairs.size());
+        for (final Pair<? extends A, ? extends B> pair : pairs) {
+            result.add(pair.first(), pair.second());
+        }
+        return result;
+    }
+
+    /// Element access
+
+    @Override
+    public Pair<A, B> get(final int index) {
+        Objects.checkIndex(index, size);
+        return new Pair<>(Cast.unchecked(firsts[index]), Cast.unchecked(seconds[index]));
+    }
+
+    public A getFirst(final int index) {
+        Objects.checkIndex(index, size);
+        return Cast.unchecked(firsts[index]);
+    }
+
+    public B getSecond(final int index) {
+        Objects.checkIndex(index, size);
+        return Cast.unchecked(seconds[index]);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /// Modification
+
+    public void add(final A first, final B second) {
+        ensureCapacity(size + 1);
+        firsts[size] = first;
+        seconds[size] = second;
+        ++size;
+        ++modCount;
+    }
+
+    @Override
+    public boolean add(final Pair<A, B> pair) {
+        add(pair.first(), pair.second());
+        return true;
+    }
+
+    @Override
+    public void add(final int index, final Pair<A, B> pair) {
+        Objects.checkIndex(index, size + 1);
+        ensureCapacity(size + 1);
+        System.arraycopy(firsts, index, firsts, index + 1, size - index);
+        System.arraycopy(seconds, index, seconds, index + 1, size - index);
+        firsts[index] = pair.first();
+        seconds[index] = pair.second();
+        ++size;
+        ++modCount;
+    }
+
+    @Override
+    public Pair<A, B> set(final int index, final Pair<A, B> pair) {
+        final Pair<A, B> old = get(index);
+        firsts[index] = pair.first();
+        seconds[index] = pair.second();
+        return old;
+    }
+
+    public A setFirst(final int index, final A first) {
+        final A old = getFirst(index);
+        firsts[index] = first;
+        return old;
+    }
+
+    public B setSecond(final int index, final B second) {
+        final B old = getSecond(index);
+        seconds[index] = second;
+        return old;
+    }
+
+    @Override
+    public Pair<A, B> remove(final int index) {
+        final Pair<A, B> old = get(index);
+        System.arraycopy(firsts, index + 1, firsts, index, size - index - 1);
+        System.arraycopy(seconds, index + 1, seconds, index, size - index - 1);
+        --size;
+        firsts[size] = null;
+        seconds[size] = null;
+        ++modCount;
+        return old;
+    }
+
+    @Override
+    public void clear() {
+        Arrays.fill(firsts, 0, size, null);
+        Arrays.fill(seconds, 0, size, null);
+        size = 0;
+        ++modCount;
+    }
+
+    private void ensureCapacity(final int capacity) {
+        if (capacity > firsts.length) {
+            final int newCapacity = Math.max(capacity, firsts.length + (firsts.length >> 1) + 1);
+            firsts = Arrays.copyOf(firsts, newCapacity);
+            seconds = Arrays.copyOf(seconds, newCapacity);
+        }
+    }
+
+    /// Columns
+
+    /**
+     * @return A live view of the first values. Setting values in the view sets them in this list.
+     */
+    public List<A> firsts() {
+        return new Column<>(true);
+    }
+
+    /**
+     * @return A live view of the second values. Setting values in the view sets them in this list.
+     */
+    public List<B> seconds() {
+        return new Column<>(false);
+    }
+
+    private class Column<C> extends AbstractList<C> implements RandomAccess {
+        private final boolean first;
+
+        Column(final boolean first) {
+            this.first = first;
+        }
+
+        @Override
+        public C get(final int index) {
+            Objects.checkIndex(index, size);
+            return Cast.unchecked(first ? firsts[index] : seconds[index]);
+        }
+
+        @Override
+        public C set(final int index, final C element) {
+            final C old = get(index);
+            (first ? firsts : seconds)[index] = element;
+            return old;
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+
+    /// Bulk operations
+
+    /**
+     * @return A new list in which the first values are mapped with the given function in a single pass over the
+     *         first column. The second column is copied as is.
+     */
+    public <A2> PairList<A2, B> mapFirst(final Function<? super A, ? extends A2> f) {
+        return new PairList<>(mapColumn(firsts, f), Arrays.copyOf(seconds, size), size);
+    }
+
+    /**
+     * @return A new list in which the second values are mapped with the given function in a single pass over the
+     *         second column. The first column is copied as is.
+     */
+    public <B2> PairList<A, B2> mapSecond(final Function<? super B, ? extends B2> f) {
+        return new PairList<>(Arrays.copyOf(firsts, size), mapColumn(seconds, f), size);
+    }
+
+    /**
+     * @return A new list in which both columns are mapped with the given functions, one column after the other.
+     */
+    public <A2, B2> PairList<A2, B2> bimap(
+            final Function<? super A, ? extends A2> fst,
+            final Function<? super B, ? extends B2> snd)
+    {
+        return new PairList<>(mapColumn(firsts, fst), mapColumn(seconds, snd), size);
+    }
+
+    private <X, Y> Object[] mapColumn(final Object[] column, final Function<? super X, ? extends Y> f) {
+        final Object[] result = new Object[size];
+        for (int i = 0; i < size; ++i) {
+            result[i] = f.apply(Cast.unchecked(column[i]));
+        }
+        return result;
+    }
+
+    /**
+     * Sorts this list by the first values. The sort is stable.
+     */
+    public void sortByFirst(final Comparator<? super A> order) {
+        sortBy(firsts, order);
+    }
+
+    /**
+     * Sorts this list by the second values. The sort is stable.
+     */
+    public void sortBySecond(final Comparator<? super B> order) {
+        sortBy(seconds, order);
+    }
+
+    private <C> void sortBy(final Object[] column, final Comparator<? super C> order) {
+        final int[] positions = IndexSort.stableOrder(size, (i, j) -> order.compare(Cast.unchecked(column[i]), Cast.unchecked(column[j])));
+        firsts = IndexSort.permute(firsts, positions);
+        seconds = IndexSort.permute(seconds, positions);
+        ++modCount;
+    }
+}
@@ -0,0 +1,431 @@
+package org.variantsync.functjonal.list;
+
+import org.variantsync.functjonal.Cast;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.RandomAccess;
+
+/**
+ * An immutable list with structural sharing: Deriving a new vector by appending, updating, or slicing does not
+ * copy the vector but shares all unchanged parts with it.
+ * Elements are stored in a trie with a branching factor of 32, of which the last (up to) 32 elements are kept in
+ * a separate tail buffer. Thus,
+ * <ul>
+ *     <li>{@link #get(int)} and {@link #with(int, Object)} run in O(log32 n) (at most 7 levels for any int size),</li>
+ *     <li>{@link #append(Object)} runs in amortized constant time (it only touches the trie every 32 appends),</li>
+ *     <li>{@link #slice(int, int)}, {@link #subList(int, int)}, and {@link #tail()} run in constant time,</li>
+ *     <li>{@link #concat(List)} runs in time linear in the size of the appended list (unless this vector is a slice
+ *         that ends before the end of the sliced vector, which has to be copied),</li>
+ * </ul>
+ * A slice is a window onto the trie of the sliced vector and thus keeps all elements of the sliced vector reachable.
+ * Use {@link #toBuilder()} to fill a new vector in place (without creating an intermediate vector per element).
+ *
+ * <p>As an unmodifiable {@link RandomAccess} list, a persistent vector can be wrapped into {@link ListDecorator}s
+ * such as {@link ListHeadTailView} or {@link NonEmptyList} (which then reject modifications).
+ *
+ * @param <T> element type
+ */
+public final class PersistentVector<T> extends AbstractList<T> implements RandomAccess {
+    private static final int BITS = 5;
+    private static final int WIDTH = 1 << BITS;
+    private static final int MASK = WIDTH - 1;
+
+    private static final Node EMPTY_NODE = new Node(null, new Object[WIDTH]);
+    private static final PersistentVector<?> EMPTY = new PersistentVector<>(0, BITS, EMPTY_NODE, new Object[0], 0, 0);
+
+    /// The trie
+
+    /**
+     * Number of elements in the trie (including the tail).
+     */
+    private final int count;
+    /**
+     * Number of bits of an index that address the children of the root.
+     */
+    private final int shift;
+    private final Node root;
+    private final Object[] tail;
+
+    /// The window [start, end) of the trie that is visible in this vector
+
+    private final int start;
+    private final int end;
+
+    private PersistentVector(final int count, final int shift, final Node root, final Object[] tail, final int start, final int end) {
+        this.count = count;
+        this.shift = shift;
+        this.root = root;
+        this.tail = tail;
+        this.start = start;
+        this.end = end;
+    }
+
+    public static <T> PersistentVector<T> empty() {
+        return Cast.unchecked(EMPTY);
+    }
+
+    @SafeVarargs
+    public static <T> PersistentVector<T> of(final T... elements) {
+        final Builder<T> builder = builder();
+        for (final T element : elements) {
+            builder.add(element);
+        }
+        return builder.build();
+    }
+
+    public static <T> PersistentVector<T> from(final Collection<? extends T> elements) {
+        if (elements instanceof PersistentVector<? extends T> v) {
+            return Cast.unchecked(v);
+        }
+        return PersistentVector.<T>builder().addAll(elements).build();
+    }
+
+    public static <T> Builder<T> builder() {
+        return PersistentVector.<T>empty().toBuilder();
+    }
+
+    /// Queries
+
+    @Override
+    public T get(final int index) {
+        Objects.checkIndex(index, size());
+        final int i = start + index;
+        return Cast.unchecked(leafFor(i)[i & MASK]);
+    }
+
+    @Override
+    public int size() {
+        return end - start;
+    }
+
+    /// Derivations
+
+    /**
+     * @return A vector with the given element appended to the elements of this vector.
+     */
+    public PersistentVector<T> append(final T element) {
+        if (end < count) {
+            // This is a slice. Positions after the window are invisible and can be overwritten.
+            return assoc(end, element).window(start, end + 1);
+        }
+        return cons(element).window(start, end + 1);
+    }
+
+    /**
+     * @return A vector that equals this vector except that the element at the given index is replaced.
+     */
+    public PersistentVector<T> with(final int index, final T element) {
+        Objects.checkIndex(index, size());
+        return assoc(start + index, element);
+    }
+
+    /**
+     * @return The vector of the elements in [from, to) of this vector.
+     */
+    public PersistentVector<T> slice(final int from, final int to) {
+        Objects.checkFromToIndex(from, to, size());
+        return window(start + from, start + to);
+    }
+
+    /**
+     * @return This vector without its first element.
+     * @throws NoSuchElementException if this vector is empty.
+     */
+    public PersistentVector<T> tail() {
+        if (isEmpty()) {
+            throw new NoSuchElementException("Cannot take the tail of an empty vector!");
+        }
+        return window(start + 1, end);
+    }
+
+    /**
+     * Appends the elements of the given list onto the shared trie of this vector.
+     * Only if this vector is a slice that ends before the end of the sliced vector, the elements of this
+     * vector have to be copied first.
+     * @return A vector with the elements of the given list appended to the elements of this vector.
+     */
+    public PersistentVector<T> concat(final List<? extends T> other) {
+        if (other.isEmpty()) {
+            return this;
+        }
+        if (isEmpty() && other instanceof PersistentVector<? extends T> v) {
+            return Cast.unchecked(v);
+        }
+        if (end == count) {
+            // Elements before the window stay invisible.
+            return new Builder<T>(count, shift, root, Arrays.copyOf(tail, WIDTH)).addAll(other).build(start);
+        }
+        return toBuilder().addAll(other).build();
+    }
+
+    /**
+     * Views the elements in [fromIndex, toIndex) in constant time.
+     * The returned list is a persistent vector as well.
+     */
+    @Override
+    public PersistentVector<T> subList(final int fromIndex, final int toIndex) {
+        return slice(fromIndex, toIndex);
+    }
+
+    /**
+     * @return A builder that starts with the elements of this vector.
+     *         The builder shares the trie with this vector and copies nodes on first write only.
+     */
+    public Builder<T> toBuilder() {
+        if (start == 0 && end == count) {
+            return new Builder<>(count, shift, root, Arrays.copyOf(tail, WIDTH));
+        }
+        // Invisible elements before or after the window have to be dropped.
+        final Builder<T> builder = new Builder<>(0, BITS, EMPTY_NODE, new Object[WIDTH]);
+        return builder.addAll(this);
+    }
+
+    /// Iteration
+
+    /**
+     * Iterates the leaves of the trie directly instead of looking up each element from the root.
+     */
+    @Override
+    public Iterator<T> iterator() {
+        return new Iterator<>() {
+            private int i = start;
+            private Object[] leaf = i < end ? leafFor(i) : null;
+
+            @Override
+            public boolean hasNext() {
+                return i < end;
+            }
+
+            @Override
+            public T next() {
+                if (i >= end) {
+                    throw new NoSuchElementException();
+                }
+                if ((i & MASK) == 0) {
+                    leaf = leafFor(i);
+                }
+                return Cast.unchecked(leaf[i++ & MASK]);
+            }
+        };
+    }
+
+    /// Implementation
+
+    private static final class Node {
+        /**
+         * The builder that may mutate this node in place or null.
+         */
+        final Edit edit;
+        final Object[] array;
+
+        Node(final Edit edit, final Object[] array) {
+            this.edit = edit;
+            this.array = array;
+        }
+    }
+
+    /**
+     * Token identifying the owner of mutable nodes.
+     */
+    private static final class Edit {}
+
+    private static int tailOffset(final int count) {
+        return count < WIDTH ? 0 : ((count - 1) >>> BITS) << BITS;
+    }
+
+    private PersistentVector<T> window(final int from, final int to) {
+        return from == start && to == end ? this : new PersistentVector<>(count, shift, root, tail, from, to);
+    }
+
+    private Object[] leafFor(final int i) {
+        if (i >= tailOffset(count)) {
+            return tail;
+        }
+        Node node = root;
+        for (int level = shift; level > 0; level -= BITS) {
+            node = (Node) node.array[(i >>> level) & MASK];
+        }
+        return node.array;
+    }
+
+    /**
+     * @return A vector with the same window whose trie has the given element at the given trie index.
+     */
+    private PersistentVector<T> assoc(final int i, final T element) {
+        if (i >= tailOffset(count)) {
+            final Object[] newTail = tail.clone();
+            newTail[i & MASK] = element;
+            return new PersistentVector<>(count, shift, root, newTail, start, end);
+        }
+        return new PersistentVector<>(count, shift, assoc(null, shift, root, i, element), tail, start, end);
+    }
+
+    private static Node assoc(final Edit edit, final int level, final Node node, final int i, final Object element) {
+        final Node result = editable(edit, node);
+        if (level == 0) {
+            result.array[i & MASK] = element;
+        } else {
+            final int child = (i >>> level) & MASK;
+            result.array[child] = assoc(edit, level - BITS, (Node) node.array[child], i, element);
+        }
+        return result;
+    }
+
+    /**
+     * @return A vector with the same window whose trie has the given element appended.
+     */
+    private PersistentVector<T> cons(final T element) {
+        if (count - tailOffset(count) < WIDTH) {
+            final Object[] newTail = Arrays.copyOf(tail, tail.length + 1);
+            newTail[tail.length] = element;
+            return new PersistentVector<>(count + 1, shift, root, newTail, start, end);
+        }
+
+        final Node tailNode = new Node(null, tail);
+        final Object[] newTail = {element};
+        if ((count >>> BITS) > (1 << shift)) {
+            // The trie is full. Add a new level above the root.
+            final Node newRoot = new Node(null, new Object[WIDTH]);
+            newRoot.array[0] = root;
+            newRoot.array[1] = newPath(null, shift, tailNode);
+            return new PersistentVector<>(count + 1, shift + BITS, newRoot, newTail, start, end);
+        }
+        return new PersistentVector<>(count + 1, shift, pushTail(null, count, shift, root, tailNode), newTail, start, end);
+    }
+
+    /**
+     * Inserts the given full tail as the last leaf into the trie with the given number of elements.
+     */
+    private static Node pushTail(final Edit edit, final int count, final int level, final Node parent, final Node tailNode) {
+        final int child = ((count - 1) >>> level) & MASK;
+        final Node result = editable(edit, parent);
+        final Node toInsert;
+        if (level == BITS) {
+            toInsert = tailNode;
+        } else {
+            final Node existing = (Node) parent.array[child];
+            toInsert = existing != null
+                    ? pushTail(edit, count, level - BITS, existing, tailNode)
+                    : newPath(edit, level - BITS, tailNode);
+        }
+        result.array[child] = toInsert;
+        return result;
+    }
+
+    private static Node newPath(final Edit edit, final int level, final Node node) {
+        if (level == 0) {
+            return node;
+        }
+        final Node path = new Node(edit, new Object[WIDTH]);
+        path.array[0] = newPath(edit, level - BITS, node);
+        return path;
+    }
+
+    /**
+     * @return The given node if it is owned by the given builder or a copy owned by the given builder otherwise.
+     */
+    private static Node editable(final Edit edit, final Node node) {
+        if (edit != null && node.edit == edit) {
+            return node;
+        }
+        return new Node(edit, node.array.clone());
+    }
+
+    /**
+     * Fills a persistent vector in place.
+     * Nodes created by a builder are owned by it and mutated in place until {@link #build()} is called.
+     * Nodes of other vectors are copied on write.
+     * @param <T> element type
+     */
+    public static final class Builder<T> {
+        private Edit edit = new Edit();
+        private int count;
+        private int shift;
+        private Node root;
+        /**
+         * Always has {@link #WIDTH} slots of which the first count - tailOffset(count) are used.
+         */
+        private Object[] tail;
+
+        private Builder(final int count, final int shift, final Node root, final Object[] tail) {
+            this.count = count;
+            this.shift = shift;
+            this.root = root;
+            this.tail = tail;
+        }
+
+        public Builder<T> add(final T element) {
+            final int tailSize = count - tailOffset(count);
+            if (tailSize < WIDTH) {
+                tail[tailSize] = element;
+                ++count;
+                return this;
+            }
+
+            final Node tailNode = new Node(edit, tail);
+            tail = new Object[WIDTH];
+            tail[0] = element;
+            if ((count >>> BITS) > (1 << shift)) {
+                final Node newRoot = new Node(edit, new Object[WIDTH]);
+                newRoot.array[0] = root;
+                newRoot.array[1] = newPath(edit, shift, tailNode);
+                root = newRoot;
+                shift += BITS;
+            } else {
+                root = pushTail(edit, count, shift, root, tailNode);
+            }
+            ++count;
+            return this;
+        }
+
+        public Builder<T> addAll(final Collection<? extends T> elements) {
+            for (final T element : elements) {
+                add(element);
+            }
+            return this;
+        }
+
+        /**
+         * Replaces the element at the given index.
+         */
+        public Builder<T> set(final int index, final T element) {
+            Objects.checkIndex(index, count);
+            if (index >= tailOffset(count)) {
+                tail[index & MASK] = element;
+            } else {
+                root = assoc(edit, shift, root, index, element);
+            }
+            return this;
+        }
+
+        public int size() {
+            return count;
+        }
+
+        /**
+         * @return A persistent vector with all elements added so far.
+         *         This builder remains usable but will not mutate the nodes of the returned vector.
+         */
+        public PersistentVector<T> build() {
+            return build(0);
+        }
+
+        /**
+         * @return A persistent vector of all elements added so far at index start or later.
+         */
+        private PersistentVector<T> build(final int start) {
+            if (count == start) {
+                return empty();
+            }
+            edit = new Edit();
+            final Object[] vectorTail = Arrays.copyOf(tail, count - tailOffset(count));
+            return new PersistentVector<>(count, shift, root, vectorTail, start, count);
+        }
+    }
+}
@@ -0,0 +1,272 @@
+package org.variantsync.functjonal.list;
+
+import org.variantsync.functjonal.Cast;
+import org.variantsync.functjonal.Pair;
+import org.variantsync.functjonal.category.InplaceMonoid;
+import org.variantsync.functjonal.category.Monoid;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.RandomAccess;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * A list that is indexed by a monoid such that sub-ranges of the list can be folded in logarithmic time.
+ * Each element t is measured by a function measure: T -> M and the measures are composed with a monoid over M.
+ * The measures are stored in a segment tree (a complete binary tree in which each inner node holds the composition
+ * of the measures of its children).
+ *
+ * <p>Complexities with n being the number of elements:
+ * <ul>
+ *     <li>{@link #fold(int, int)} runs in O(log n) appends of the monoid,</li>
+ *     <li>{@link #set(int, Object)} runs in O(log n) appends of the monoid,</li>
+ *     <li>{@link #add(Object)} runs in amortized O(log n) appends of the monoid,</li>
+ *     <li>{@link #get(int)} and {@link #size()} run in constant time,</li>
+ *     <li>positional insertion and deletion ({@link #add(int, Object)}, {@link #addAll(int, Collection)},
+ *         {@link #remove(int)}, {@link #removeRange(int, int)}, {@link #removeIf(Predicate)},
+ *         {@link #removeAll(Collection)}, {@link #retainAll(Collection)}) as well as {@link #split(int)} shift all
+ *         elements after the given position and thus rebuild the tree in O(n) (once per call, not once per
+ *         element).</li>
+ * </ul>
+ * The monoid does not have to be commutative. Folds compose measures in list order.
+ * The monoid must not be an {@link InplaceMonoid} because the tree passes its stored measures to
+ * {@link Monoid#append(Object, Object)}.
+ *
+ * <p>A SegmentTreeList is a random access list and can thus be wrapped into {@link ListDecorator}s.
+ * Changing an element in place (i.e., without {@link #set(int, Object)}) such that its measure changes invalidates
+ * the tree.
+ *
+ * @param <T> Type of elements in this list.
+ * @param <M> Type of the measure of elements.
+ */
+public class SegmentTreeList<T, M> extends AbstractList<T> implements RandomAccess {
+    private final Monoid<M> monoid;
+    private final Function<? super T, ? extends M> measure;
+    private final ArrayList<T> elements;
+    /**
+     * Segment tree with the root at index 1 and the leaves at indices [capacity, 2 * capacity).
+     * Leaves beyond size() hold the neutral element.
+     */
+    private Object[] tree;
+    private int capacity;
+
+    /**
+     * Creates an empty list.
+     * @param monoid The monoid to compose measures of elements with.
+     * @param measure The function that computes the measure of each element.
+     */
+    public SegmentTreeList(final Monoid<M> monoid, final Function<? super T, ? extends M> measure) {
+        this(monoid, measure, List.of());
+    }
+
+    /**
+     * Creates a list with the given elements.
+     * @param monoid The monoid to compose measures of elements with.
+     * @param measure The function that computes the measure of each element.
+     * @param elements The initial elements of this list in order.
+     * @throws IllegalArgumentException if the given monoid is an {@link InplaceMonoid}.
+     */
+    public SegmentTreeList(final Monoid<M> monoid, final Function<? super T, ? extends M> measure, final Collection<? extends T> elements) {
+        if (monoid instanceof InplaceMonoid) {
+            throw new IllegalArgumentException("SegmentTreeList requires a monoid that does not modify its arguments but got an InplaceMonoid!");
+        }
+        this.monoid = Objects.requireNonNull(monoid);
+        this.measure = Objects.requireNonNull(measure);
+        this.elements = new ArrayList<>(elements);
+        rebuild();
+    }
+
+    /**
+     * Creates a list that is indexed by the values of its elements directly.
+     */
+    public static <M> SegmentTreeList<M, M> of(final Monoid<M> monoid, final Collection<? extends M> elements) {
+        return new SegmentTreeList<>(monoid, Function.identity(), elements);
+    }
+
+    /**
+     * Composes the measures of all elements in this list.
+     */
+    public M fold() {
+        return node(1);
+    }
+
+    /**
+     * Composes the measures of the elements in the range [from, to) in list order.
+     * @param from Index of the first element to fold (inclusive).
+     * @param to Index after the last element to fold (exclusive).
+     * @return The composition of the measures of the given range or the neutral element if the range is empty.
+     */
+    public M fold(final int from, final int to) {
+        Objects.checkFromToIndex(from, to, size());
+        M left = monoid.neutral();
+        M right = monoid.neutral();
+        for (int l = from + capacity, r = to + capacity; l < r; l >>= 1, r >>= 1) {
+            if ((l & 1) == 1) {
+                left = monoid.append(left, node(l++));
+            }
+            if ((r & 1) == 1) {
+                right = monoid.append(node(--r), right);
+            }
+        }
+        return monoid.append(left, right);
+    }
+
+    /**
+     * Splits this list at the given index.
+     * This list remains unchanged.
+     * @return Two new lists with the same monoid and measure where the first list contains the elements
+     *         in [0, index) and the second list contains the elements in [index, size()).
+     */
+    public Pair<SegmentTreeList<T, M>, SegmentTreeList<T, M>> split(final int index) {
+        Objects.checkIndex(index, size() + 1);
+        return new Pair<>(
+                new SegmentTreeList<>(monoid, measure, elements.subList(0, index)),
+                new SegmentTreeList<>(monoid, measure, elements.subList(index, size()))
+        );
+    }
+
+    @Override
+    public T get(final int index) {
+        return elements.get(index);
+    }
+
+    @Override
+    public int size() {
+        return elements.size();
+    }
+
+    @Override
+    public T set(final int index, final T element) {
+        final T old = elements.set(index, element);
+        update(index);
+        return old;
+    }
+
+    @Override
+    public boolean add(final T element) {
+        ++modCount;
+        elements.add(element);
+        if (elements.size() > capacity) {
+            rebuild();
+        } else {
+            update(elements.size() - 1);
+        }
+        return true;
+    }
+
+    @Override
+    public void add(final int index, final T element) {
+        ++modCount;
+        elements.add(index, element);
+        rebuild();
+    }
+
+    @Override
+    public T remove(final int index) {
+        ++modCount;
+        final T removed = elements.remove(index);
+        rebuild();
+        return removed;
+    }
+
+    @Override
+    public boolean addAll(final Collection<? extends T> c) {
+        if (c.isEmpty()) {
+            return false;
+        }
+        ++modCount;
+        elements.addAll(c);
+        rebuild();
+        return true;
+    }
+
+    @Override
+    public boolean addAll(final int index, final Collection<? extends T> c) {
+        Objects.checkIndex(index, size() + 1);
+        if (c.isEmpty()) {
+            return false;
+        }
+        ++modCount;
+        elements.addAll(index, c);
+        rebuild();
+        return true;
+    }
+
+    @Override
+    public void clear() {
+        ++modCount;
+        elements.clear();
+        rebuild();
+    }
+
+    @Override
+    public boolean removeIf(final Predicate<? super T> filter) {
+        return removedAny(elements.removeIf(filter));
+    }
+
+    @Override
+    public boolean removeAll(final Collection<?> c) {
+        return removedAny(elements.removeAll(c));
+    }
+
+    @Override
+    public boolean retainAll(final Collection<?> c) {
+        return removedAny(elements.retainAll(c));
+    }
+
+    /**
+     * Rebuilds the tree once after the backing list was compacted by a bulk removal.
+     * @return The given flag.
+     */
+    private boolean removedAny(final boolean removed) {
+        if (removed) {
+            ++modCount;
+            rebuild();
+        }
+        return removed;
+    }
+
+    @Override
+    protected void removeRange(final int fromIndex, final int toIndex) {
+        ++modCount;
+        elements.subList(fromIndex, toIndex).clear();
+        rebuild();
+    }
+
+    private M node(final int i) {
+        return Cast.unchecked(tree[i]);
+    }
+
+    /**
+     * Recomputes the measure of the element at the given index and all its ancestors in the tree.
+     */
+    private void update(final int index) {
+        int i = index + capacity;
+        tree[i] = measure.apply(elements.get(index));
+        for (i >>= 1; i > 0; i >>= 1) {
+            tree[i] = monoid.append(node(2 * i), node(2 * i + 1));
+        }
+    }
+
+    /**
+     * Recomputes the whole tree, growing or shrinking it to the smallest power of two that fits all elements.
+     */
+    private void rebuild() {
+        capacity = Integer.highestOneBit(Math.max(1, elements.size()));
+        if (capacity < elements.size()) {
+            capacity <<= 1;
+        }
+
+        tree = new Object[2 * capacity];
+        for (int i = 0; i < capacity; ++i) {
+            tree[capacity + i] = i < elements.size() ? measure.apply(elements.get(i)) : monoid.neutral();
+        }
+        for (int i = capacity - 1; i > 0; --i) {
+            tree[i] = monoid.append(node(2 * i), node(2 * i + 1));
+        }
+    }
+}
@@ -0,0 +1,238 @@
+package org.variantsync.functjonal.list;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
+
+/**
+ * A list decorator for lists that are read by many threads and written rarely.
+ * All reads are served from an immutable snapshot ({@link PersistentVector}) of the decorated list that is
+ * published through a volatile field. Readers thus never lock and iterate a consistent version of the list even if
+ * it is modified concurrently (the modification becomes visible to readers that start afterwards).
+ *
+ * <p>Writers are serialized. Each write modifies the decorated list and publishes a new snapshot.
+ * Appending and replacing elements derive the new snapshot from the previous one in (amortized) constant
+ * and logarithmic time, respectively. All other modifications recreate the snapshot in linear time (as a
+ * copy-on-write list would). Use {@link #update(Consumer)} to publish several modifications as a single new version.
+ *
+ * <p>Iterators, spliterators (and thus streams), and sub lists of this list are views of a snapshot and thus
+ * unmodifiable.
+ * The decorated list must not be modified other than through this decorator.
+ *
+ * @param <T> element type
+ */
+public class SnapshotList<T> extends ListDecorator<T> {
+    private volatile PersistentVector<T> snapshot;
+
+    public SnapshotList(final List<T> list) {
+        super(list);
+        this.snapshot = PersistentVector.from(list);
+    }
+
+    /**
+     * @return An immutable snapshot of the current state of this list. Runs in constant time.
+     */
+    public PersistentVector<T> snapshot() {
+        return snapshot;
+    }
+
+    /**
+     * Applies the given modifications to the decorated list and publishes the result as a single new version.
+     * Readers never observe intermediate states of the batch.
+     */
+    public void update(final Consumer<? super List<T>> batch) {
+        write(list -> {
+            batch.accept(list);
+            return null;
+        });
+    }
+
+    /**
+     * Applies the given modification to the decorated list and publishes the result as a new version.
+     * @return The result of the modification.
+     */
+    private synchronized <R> R write(final Function<? super List<T>, R> modification) {
+        try {
+            return modification.apply(wrappee);
+        } finally {
+            snapshot = PersistentVector.from(wrappee);
+        }
+    }
+
+    /// Reads
+
+    @Override
+    public int size() {
+        return snapshot.size();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return snapshot.isEmpty();
+    }
+
+    @Override
+    public boolean contains(final Object o) {
+        return snapshot.contains(o);
+    }
+
+    @Override
+    public boolean containsAll(final Collection<?> c) {
+        return snapshot.containsAll(c);
+    }
+
+    @Override
+    public Iterator<T> iterator() {
+        return snapshot.iterator();
+    }
+
+    @Override
+    public Object[] toArray() {
+        return snapshot.toArray();
+    }
+
+    @Override
+    public <T1> T1[] toArray(final T1[] a) {
+        return snapshot.toArray(a);
+    }
+
+    @Override
+    public T get(final int index) {
+        return snapshot.get(index);
+    }
+
+    @Override
+    public int indexOf(final Object o) {
+        return snapshot.indexOf(o);
+    }
+
+    @Override
+    public int lastIndexOf(final Object o) {
+        return snapshot.lastIndexOf(o);
+    }
+
+    /**
+     * Splits a single snapshot such that a stream of this list sees exactly one version of it.
+     */
+    @Override
+    public Spliterator<T> spliterator() {
+        return snapshot.spliterator();
+    }
+
+    @Override
+    public ListIterator<T> listIterator() {
+        return snapshot.listIterator();
+    }
+
+    @Override
+    public ListIterator<T> listIterator(final int index) {
+        return snapshot.listIterator(index);
+    }
+
+    @Override
+    public List<T> subList(final int fromIndex, final int toIndex) {
+        return snapshot.subList(fromIndex, toIndex);
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        return o == this || snapshot.equals(o);
+    }
+
+    @Override
+    public int hashCode() {
+        return snapshot.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return snapshot.toString();
+    }
+
+    /// Writes
+
+    @Override
+    public synchronized boolean add(final T t) {
+        wrappee.add(t);
+        snapshot = snapshot.append(t);
+        return true;
+    }
+
+    @Override
+    public synchronized T set(final int index, final T element) {
+        final T old = wrappee.set(index, element);
+        snapshot = snapshot.with(index, element);
+        return old;
+    }
+
+    @Override
+    public void add(final int index, final T element) {
+        update(list -> list.add(index, element));
+    }
+
+    @Override
+    public T remove(final int index) {
+        return write(list -> list.remove(index));
+    }
+
+    @Override
+    public synchronized boolean remove(final Object o) {
+        final int index = wrappee.indexOf(o);
+        if (index < 0) {
+            return false;
+        }
+        remove(index);
+        return true;
+    }
+
+    @Override
+    public synchronized boolean addAll(final Collection<? extends T> c) {
+        wrappee.addAll(c);
+        snapshot = snapshot.concat(c instanceof List<? extends T> l ? l : new ArrayList<>(c));
+        return !c.isEmpty();
+    }
+
+    @Override
+    public boolean addAll(final int index, final Collection<? extends T> c) {
+        return write(list -> list.addAll(index, c));
+    }
+
+    @Override
+    public boolean removeAll(final Collection<?> c) {
+        return write(list -> list.removeAll(c));
+    }
+
+    @Override
+    public boolean retainAll(final Collection<?> c) {
+        return write(list -> list.retainAll(c));
+    }
+
+    @Override
+    public boolean removeIf(final Predicate<? super T> filter) {
+        return write(list -> list.removeIf(filter));
+    }
+
+    @Override
+    public void replaceAll(final UnaryOperator<T> operator) {
+        update(list -> list.replaceAll(operator));
+    }
+
+    @Override
+    public void sort(final Comparator<? super T> c) {
+        update(list -> list.sort(c));
+    }
+
+    @Override
+    public synchronized void clear() {
+        wrappee.clear();
+        snapshot = PersistentVector.empty();
+    }
+}
@@ -0,0 +1,348 @@
+package org.variantsync.functjonal.list;
+
+import org.variantsync.functjonal.category.InplaceMonoid;
+import org.variantsync.functjonal.category.Monoid;
+
+import java.util.AbstractList;
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.ConcurrentModificationException;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * A list implemented as an AVL tree ordered by position in which each node caches the size of its subtree and
+ * the composition of the measures of all elements in its subtree.
+ * In contrast to a {@link SegmentTreeList}, elements can be inserted and removed at any position in O(log n)
+ * because positions are not stored but derived from subtree sizes.
+ * {@link #get(int)}, {@link #set(int, Object)}, {@link #add(int, Object)}, {@link #remove(int)},
+ * {@link #fold(int, int)}, and {@link #search(Predicate)} run in O(log n) (appends of the monoid).
+ * {@link #fold()} and {@link #size()} run in constant time.
+ * The monoid must not be an {@link InplaceMonoid} because cached measures are reused as operands of appends.
+ * @param <T> Type of elements in this list.
+ * @param <M> Type of the measure of elements.
+ */
+final class SummaryTreeList<T, M> extends AbstractList<T> {
+    private static final class Node<T, M> {
+        T element;
+        M measure;
+        Node<T, M> left;
+        Node<T, M> right;
+        int height = 1;
+        int size = 1;
+        M summary;
+
+        Node(final T element, final M measure) {
+            this.element = element;
+            this.measure = measure;
+            this.summary = measure;
+        }
+    }
+
+    private final Monoid<M> monoid;
+    private final Function<? super T, ? extends M> measure;
+    private Node<T, M> root;
+
+    /**
+     * Creates a list with the given elements in O(n).
+     * @param monoid The monoid to compose measures of elements with.
+     * @param measure The function that computes the measure of each element.
+     * @param elements The initial elements of this list in order.
+     * @throws IllegalArgumentException if the given monoid is an {@link InplaceMonoid}.
+     */
+    SummaryTreeList(final Monoid<M> monoid, final Function<? super T, ? extends M> measure, final Collection<? extends T> elements) {
+        if (monoid instanceof InplaceMonoid) {
+            throw new IllegalArgumentException("SummaryTreeList requires a monoid that does not modify its arguments but got an InplaceMonoid!");
+        }
+        this.monoid = Objects.requireNonNull(monoid);
+        this.measure = Objects.requireNonNull(measure);
+        final Object[] initial = elements.toArray();
+        this.root = build(initial, 0, initial.length);
+    }
+
+    /// Queries
+
+    @Override
+    public int size() {
+        return sizeOf(root);
+    }
+
+    @Override
+    public T get(final int index) {
+        return nodeAt(Objects.checkIndex(index, size())).element;
+    }
+
+    /**
+     * Composes the measures of all elements in this list.
+     */
+    M fold() {
+        return summaryOf(root);
+    }
+
+    /**
+     * Composes the measures of the elements in the range [from, to) in list order.
+     * @return The composition of the measures of the given range or the neutral element if the range is empty.
+     */
+    M fold(final int from, final int to) {
+        Objects.checkFromToIndex(from, to, size());
+        return fold(root, from, to);
+    }
+
+    /**
+     * Finds the first element at which the composition of the measures of all elements up to and including that
+     * element satisfies the given predicate.
+     * The predicate has to be monotone: Once it holds for a prefix, it has to hold for all longer prefixes.
+     * @return The index of the found element or {@link #size()} if the predicate does not hold for any prefix.
+     */
+    int search(final Predicate<? super M> reached) {
+        M prefix = monoid.neutral();
+        int offset = 0;
+        Node<T, M> node = root;
+        while (node != null) {
+            final M beforeNode = monoid.append(prefix, summaryOf(node.left));
+            if (reached.test(beforeNode)) {
+                node = node.left;
+                continue;
+            }
+            final M throughNode = monoid.append(beforeNode, node.measure);
+            if (reached.test(throughNode)) {
+                return offset + sizeOf(node.left);
+            }
+            prefix = throughNode;
+            offset += sizeOf(node.left) + 1;
+            node = node.right;
+        }
+        return offset;
+    }
+
+    private Node<T, M> nodeAt(int index) {
+        Node<T, M> node = root;
+        while (true) {
+            final int leftSize = sizeOf(node.left);
+            if (index < leftSize) {
+                node = node.left;
+            } else if (index == leftSize) {
+                return node;
+            } else {
+                index -= leftSize + 1;
+                node = node.right;
+            }
+        }
+    }
+
+    private M fold(final Node<T, M> node, final int from, final int to) {
+        if (node == null || from >= to) {
+            return monoid.neutral();
+        }
+        if (from <= 0 && to >= node.size) {
+            return node.summary;
+        }
+        final int leftSize = sizeOf(node.left);
+        M result = fold(node.left, from, Math.min(to, leftSize));
+        if (from <= leftSize && leftSize < to) {
+            result = monoid.append(result, node.measure);
+        }
+        return monoid.append(result, fold(node.right, Math.max(0, from - leftSize - 1), to - leftSize - 1));
+    }
+
+    private static int sizeOf(final Node<?, ?> node) {
+        return node == null ? 0 : node.size;
+    }
+
+    private M summaryOf(final Node<T, M> node) {
+        return node == null ? monoid.neutral() : node.summary;
+    }
+
+    /// Modifications
+
+    @Override
+    public T set(final int index, final T element) {
+        Objects.checkIndex(index, size());
+        final Object[] old = new Object[1];
+        set(root, index, element, old);
+        @SuppressWarnings("unchecked")
+        final T t = (T) old[0];
+        return t;
+    }
+
+    private void set(final Node<T, M> node, final int index, final T element, final Object[] old) {
+        final int leftSize = sizeOf(node.left);
+        if (index < leftSize) {
+            set(node.left, index, element, old);
+        } else if (index == leftSize) {
+            old[0] = node.element;
+            node.element = element;
+            node.measure = measure.apply(element);
+        } else {
+            set(node.right, index - leftSize - 1, element, old);
+        }
+        update(node);
+    }
+
+    @Override
+    public void add(final int index, final T element) {
+        Objects.checkIndex(index, size() + 1);
+        root = add(root, index, new Node<>(element, measure.apply(element)));
+        ++modCount;
+    }
+
+    private Node<T, M> add(final Node<T, M> node, final int index, final Node<T, M> inserted) {
+        if (node == null) {
+            return inserted;
+        }
+        final int leftSize = sizeOf(node.left);
+        if (index <= leftSize) {
+            node.left = add(node.left, index, inserted);
+        } else {
+            node.right = add(node.right, index - leftSize - 1, inserted);
+        }
+        return balance(node);
+    }
+
+    @Override
+    public T remove(final int index) {
+        final T removed = nodeAt(Objects.checkIndex(index, size())).element;
+        root = remove(root, index);
+        ++modCount;
+        return removed;
+    }
+
+    private Node<T, M> remove(final Node<T, M> node, final int index) {
+        final int leftSize = sizeOf(node.left);
+        if (index < leftSize) {
+            node.left = remove(node.left, index);
+        } else if (index > leftSize) {
+            node.right = remove(node.right, index - leftSize - 1);
+        } else {
+            if (node.left == null) {
+                return node.right;
+            }
+            if (node.right == null) {
+                return node.left;
+            }
+            // Replace the node by its successor.
+            Node<T, M> successor = node.right;
+            while (successor.left != null) {
+                successor = successor.left;
+            }
+            final Node<T, M> replacement = new Node<>(successor.element, successor.measure);
+            replacement.right = remove(node.right, 0);
+            replacement.left = node.left;
+            return balance(replacement);
+        }
+        return balance(node);
+    }
+
+    @Override
+    public void clear() {
+        root = null;
+        ++modCount;
+    }
+
+    private Node<T, M> build(final Object[] elements, final int from, final int to) {
+        if (from >= to) {
+            return null;
+        }
+        final int mid = (from + to) >>> 1;
+        @SuppressWarnings("unchecked")
+        final T element = (T) elements[mid];
+        final Node<T, M> node = new Node<>(element, measure.apply(element));
+        node.left = build(elements, from, mid);
+        node.right = build(elements, mid + 1, to);
+        update(node);
+        return node;
+    }
+
+    private static int heightOf(final Node<?, ?> node) {
+        return node == null ? 0 : node.height;
+    }
+
+    private void update(final Node<T, M> node) {
+        node.height = 1 + Math.max(heightOf(node.left), heightOf(node.right));
+        node.size = 1 + sizeOf(node.left) + sizeOf(node.right);
+        node.summary = monoid.append(monoid.append(summaryOf(node.left), node.measure), summaryOf(node.right));
+    }
+
+    private Node<T, M> rotateLeft(final Node<T, M> node) {
+        final Node<T, M> r = node.right;
+        node.right = r.left;
+        r.left = node;
+        update(node);
+        update(r);
+        return r;
+    }
+
+    private Node<T, M> rotateRight(final Node<T, M> node) {
+        final Node<T, M> l = node.left;
+        node.left = l.right;
+        l.right = node;
+        update(node);
+        update(l);
+        return l;
+    }
+
+    private Node<T, M> balance(final Node<T, M> node) {
+        update(node);
+        final int skew = heightOf(node.left) - heightOf(node.right);
+        if (skew > 1) {
+            if (heightOf(node.left.left) < heightOf(node.left.right)) {
+                node.left = rotateLeft(node.left);
+            }
+            return rotateRight(node);
+        }
+        if (skew < -1) {
+            if (heightOf(node.right.right) < heightOf(node.right.left)) {
+                node.right = rotateRight(node.right);
+            }
+            return rotateLeft(node);
+        }
+        return node;
+    }
+
+    /// Iteration
+
+    /**
+     * Iterates this list in order in amortized constant time per element.
+     */
+    @Override
+    public Iterator<T> iterator() {
+        return new InOrderIterator();
+    }
+
+    private final class InOrderIterator implements Iterator<T> {
+        private final Deque<Node<T, M>> path = new ArrayDeque<>();
+        private final int expectedModCount = modCount;
+
+        InOrderIterator() {
+            descendLeft(root);
+        }
+
+        private void descendLeft(Node<T, M> node) {
+            for (; node != null; node = node.left) {
+                path.push(node);
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return !path.isEmpty();
+        }
+
+        @Override
+        public T next() {
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+            if (path.isEmpty()) {
+                throw new NoSuchElementException();
+            }
+            final Node<T, M> node = path.pop();
+            descendLeft(node.right);
+            return node.element;
+        }
+    }
+}
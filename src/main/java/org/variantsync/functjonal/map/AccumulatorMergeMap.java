@@ -0,0 +1,176 @@
+package org.variantsync.functjonal.map;
+
+import org.variantsync.functjonal.iteration.MappedIterator;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.BinaryOperator;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collector;
+
+/**
+ * A map that aggregates raw input elements per key into mutable accumulators as described by a {@link Collector}.
+ * In contrast to a {@link MergeMap}, input elements are not converted to values that are then merged into the stored
+ * value. Instead, each key owns a single accumulator (created with the collector's supplier) that absorbs input
+ * elements in place (with the collector's accumulator).
+ * Thus, accumulating an element does not allocate anything except for a new accumulator when a key is first seen.
+ * The collector's finisher is applied whenever a value is read via {@link #get(Object)}, {@link #view()},
+ * or {@link #export()}.
+ *
+ * <p>For example, counting events per user boils down to a single mutable long per user:
+ * <pre>{@code
+ * AccumulatorMergeMap<UserId, Event, ?, Long> counts = AccumulatorMergeMap.of(LongMonoid.counting());
+ * counts.accumulate(event.user(), event);
+ * }</pre>
+ *
+ * @param <K> key type
+ * @param <T> type of input elements
+ * @param <A> type of mutable accumulators
+ * @param <R> type of the finished values
+ */
+public class AccumulatorMergeMap<K, T, A, R> {
+    private final Map<K, A> inner;
+    private final Supplier<A> supplier;
+    private final BiConsumer<A, ? super T> accumulator;
+    private final BinaryOperator<A> combiner;
+    private final Function<A, R> finisher;
+
+    /**
+     * Creates an accumulator merge map for the given map.
+     * @param inner The map that stores the accumulator of each key. Should be empty.
+     * @param collector Describes how to create accumulators, how to accumulate input elements into them,
+     *                  how to combine two accumulators, and how to finish accumulators.
+     */
+    public AccumulatorMergeMap(final Map<K, A> inner, final Collector<? super T, A, R> collector) {
+        this.inner = inner;
+        this.supplier = collector.supplier();
+        this.accumulator = collector.accumulator();
+        this.combiner = collector.combiner();
+        this.finisher = collector.finisher();
+    }
+
+    /**
+     * Creates an accumulator merge map backed by a new {@link HashMap}.
+     * The accumulator type is hidden, which is convenient for collectors with wildcard accumulator types
+     * (e.g., the ones in {@link java.util.stream.Collectors}).
+     */
+    public static <K, T, R> AccumulatorMergeMap<K, T, ?, R> of(final Collector<? super T, ?, R> collector) {
+        return create(collector);
+    }
+
+    private static <K, T, A, R> AccumulatorMergeMap<K, T, A, R> create(final Collector<? super T, A, R> collector) {
+        return new AccumulatorMergeMap<>(new HashMap<>(), collector);
+    }
+
+    /**
+     * Accumulates the given element into the accumulator of the given key.
+     * Creates a new accumulator for the key if there is none yet.
+     */
+    public void accumulate(final K key, final T element) {
+        A acc = inner.get(key);
+        if (acc == null) {
+            acc = supplier.get();
+            inner.put(key, acc);
+        }
+        accumulator.accept(acc, element);
+    }
+
+    /**
+     * Combines all accumulators of the given map into the accumulators of this map.
+     * The accumulators of the given map should not be used afterwards as they might have been reused by this map.
+     */
+    public void append(final AccumulatorMergeMap<K, ?, A, ?> other) {
+        for (final Map.Entry<K, A> entry : other.inner.entrySet()) {
+            final A present = inner.get(entry.getKey());
+            inner.put(entry.getKey(), present == null ? entry.getValue() : combiner.apply(present, entry.getValue()));
+        }
+    }
+
+    /**
+     * @return The finished value for the given key, or null if there is no accumulator for the given key.
+     */
+    public R get(final Object key) {
+        final A acc = inner.get(key);
+        return acc == null ? null : finisher.apply(acc);
+    }
+
+    public boolean containsKey(final Object key) {
+        return inner.containsKey(key);
+    }
+
+    public int size() {
+        return inner.size();
+    }
+
+    public boolean isEmpty() {
+        return inner.isEmpty();
+    }
+
+    public void clear() {
+        inner.clear();
+    }
+
+    /**
+     * @return The map from keys to their (unfinished) accumulators.
+     */
+    public Map<K, A> unwrap() {
+        return inner;
+    }
+
+    /**
+     * @return An unmodifiable live view of this map that applies the finisher whenever a value is read.
+     */
+    public Map<K, R> view() {
+        return new AbstractMap<>() {
+            @Override
+            public R get(final Object key) {
+                return AccumulatorMergeMap.this.get(key);
+            }
+
+            @Override
+            public boolean containsKey(final Object key) {
+                return inner.containsKey(key);
+            }
+
+            @Override
+            public int size() {
+                return inner.size();
+            }
+
+            @Override
+            public Set<Entry<K, R>> entrySet() {
+                return new AbstractSet<>() {
+                    @Override
+                    public Iterator<Entry<K, R>> iterator() {
+                        return new MappedIterator<>(
+                                inner.entrySet().iterator(),
+                                e -> new SimpleImmutableEntry<>(e.getKey(), finisher.apply(e.getValue())));
+                    }
+
+                    @Override
+                    public int size() {
+                        return inner.size();
+                    }
+                };
+            }
+        };
+    }
+
+    /**
+     * Finishes all accumulators.
+     * @return A new map from all keys to their finished values.
+     */
+    public Map<K, R> export() {
+        final Map<K, R> result = MapUtils.NewHashMap(inner.size());
+        for (final Map.Entry<K, A> entry : inner.entrySet()) {
+            result.put(entry.getKey(), finisher.apply(entry.getValue()));
+        }
+        return result;
+    }
+}
@@ -0,0 +1,370 @@
+package org.variantsync.functjonal.map;
+
+import org.variantsync.functjonal.CachedValue;
+import org.variantsync.functjonal.Cast;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.LongSupplier;
+import java.util.function.ToLongBiFunction;
+
+/**
+ * A map decorator that bounds the decorated map to a maximum total weight by evicting entries.
+ * By default, each entry weighs 1 such that the maximum weight is the maximum number of entries.
+ * Which entry is evicted is decided by an {@link EvictionPolicy} (LRU by default).
+ * Optionally, entries expire after a fixed duration since they were last written.
+ * Evicted and expired entries are reported to an {@link EvictionListener}.
+ *
+ * <p>All operations run in constant (amortized) time and are synchronized on this map,
+ * such that a caching map is safe under concurrent access as long as the decorated map is not accessed directly.
+ * The key, value, and entry views are unmodifiable and must be iterated while holding the lock of this map
+ * if other threads modify it concurrently.
+ * Listeners are invoked while holding the lock and should thus be cheap.
+ *
+ * <p>As a {@link CachedValue}, {@link #forget()} clears the cache.
+ *
+ * @param <K> key type
+ * @param <V> value type
+ */
+public class CachingMap<K, V> extends MapDecorator<K, V> implements CachedValue {
+    /**
+     * Why an entry was removed from a caching map.
+     */
+    public enum RemovalCause {
+        /**
+         * The entry was evicted because the map exceeded its maximum weight.
+         */
+        SIZE,
+        /**
+         * The entry was not written for longer than the expiration duration.
+         */
+        EXPIRED
+    }
+
+    @FunctionalInterface
+    public interface EvictionListener<K, V> {
+        void onEviction(final K key, final V value, final RemovalCause cause);
+    }
+
+    private static final long NEVER = Long.MAX_VALUE;
+
+    private final EvictionPolicy<K> policy;
+    private final long maximumWeight;
+    private final ToLongBiFunction<? super K, ? super V> weigher;
+    private final long expireAfterWriteNanos;
+    private final LongSupplier ticker;
+    private final EvictionListener<? super K, ? super V> listener;
+
+    /**
+     * Time of the last write per key in order of writes. Null if entries do not expire.
+     */
+    private final LinkedHashMap<K, Long> writeTimes;
+    private long totalWeight;
+
+    /**
+     * Creates an LRU cache of at most maximumSize entries.
+     */
+    public CachingMap(final Map<K, V> inner, final long maximumSize) {
+        this(new Builder<K, V>().maximumSize(maximumSize), inner);
+    }
+
+    private CachingMap(final Builder<K, V> builder, final Map<K, V> inner) {
+        super(inner);
+        this.policy = builder.policy == null ? EvictionPolicy.LRU() : builder.policy;
+        this.maximumWeight = builder.maximumWeight;
+        this.weigher = builder.weigher;
+        this.expireAfterWriteNanos = builder.expireAfterWriteNanos;
+        this.ticker = builder.ticker;
+        this.listener = builder.listener;
+        this.writeTimes = expireAfterWriteNanos == NEVER ? null : new LinkedHashMap<>();
+
+        final long now = ticker.getAsLong();
+        for (final Map.Entry<K, V> entry : inner.entrySet()) {
+            policy.recordInsert(entry.getKey());
+            totalWeight += weigh(entry.getKey(), entry.getValue());
+            if (writeTimes != null) {
+                writeTimes.put(entry.getKey(), now);
+            }
+        }
+        evict();
+    }
+
+    public static <K, V> Builder<K, V> builder() {
+        return new Builder<>();
+    }
+
+    public static class Builder<K, V> {
+        private EvictionPolicy<K> policy;
+        private long maximumWeight = Long.MAX_VALUE;
+        private ToLongBiFunction<? super K, ? super V> weigher = (k, v) -> 1;
+        private long expireAfterWriteNanos = NEVER;
+        private LongSupplier ticker = System::nanoTime;
+        private EvictionListener<? super K, ? super V> listener = (k, v, cause) -> {};
+
+        private Builder() {}
+
+        /**
+         * Bounds the cache to the given number of entries.
+         * Overrides any previous call to {@link #maximumWeight}.
+         */
+        public Builder<K, V> maximumSize(final long maximumSize) {
+            return maximumWeight(maximumSize, (k, v) -> 1);
+        }
+
+        /**
+         * Bounds the cache to the given total weight where the weight of each entry is computed with the given weigher.
+         * The weigher has to return the same non-negative weight for an entry whenever it is invoked.
+         */
+        public Builder<K, V> maximumWeight(final long maximumWeight, final ToLongBiFunction<? super K, ? super V> weigher) {
+            if (maximumWeight < 0) {
+                throw new IllegalArgumentException("Maximum weight must not be negative but was " + maximumWeight + "!");
+            }
+            this.maximumWeight = maximumWeight;
+            this.weigher = weigher;
+            return this;
+        }
+
+        public Builder<K, V> policy(final EvictionPolicy<K> policy) {
+            this.policy = policy;
+            return this;
+        }
+
+        /**
+         * Lets entries expire once the given duration passed since their value was last put.
+         */
+        public Builder<K, V> expireAfterWrite(final Duration duration) {
+            if (duration.isNegative()) {
+                throw new IllegalArgumentException("Expiration duration must not be negative but was " + duration + "!");
+            }
+            this.expireAfterWriteNanos = duration.toNanos();
+            return this;
+        }
+
+        /**
+         * Sets the source of time in nanoseconds used for expiration (System::nanoTime by default).
+         */
+        public Builder<K, V> ticker(final LongSupplier ticker) {
+            this.ticker = ticker;
+            return this;
+        }
+
+        public Builder<K, V> listener(final EvictionListener<? super K, ? super V> listener) {
+            this.listener = listener;
+            return this;
+        }
+
+        /**
+         * Creates a cache that decorates the given map.
+         * Entries already in the given map are registered in the cache and count as written now.
+         */
+        public CachingMap<K, V> build(final Map<K, V> inner) {
+            return new CachingMap<>(this, inner);
+        }
+    }
+
+    @Override
+    public synchronized int size() {
+        expire();
+        return inner.size();
+    }
+
+    @Override
+    public synchronized boolean isEmpty() {
+        expire();
+        return inner.isEmpty();
+    }
+
+    /**
+     * Does not count as an access for the eviction policy.
+     */
+    @Override
+    public synchronized boolean containsKey(final Object key) {
+        expire();
+        return inner.containsKey(key);
+    }
+
+    @Override
+    public synchronized boolean containsValue(final Object value) {
+        expire();
+        return inner.containsValue(value);
+    }
+
+    @Override
+    public synchronized V get(final Object key) {
+        expire();
+        final V value = inner.get(key);
+        if (value != null) {
+            policy.recordAccess(Cast.unchecked(key));
+        }
+        return value;
+    }
+
+    /**
+     * Puts the given entry into the inner map and weighs the value that the inner map actually stores afterwards.
+     * Thus, inner maps that merge values (e.g., a {@link MergeMap}) are weighed correctly, and an inner map that
+     * drops the entry upon put (e.g., a {@link GroupMergeMap} merging to the neutral element) unregisters it.
+     * @return The result of put on the inner map.
+     */
+    @Override
+    public synchronized V put(final K key, final V value) {
+        expire();
+        final boolean present = inner.containsKey(key);
+        final V old = present ? inner.get(key) : null;
+        final V result = inner.put(key, value);
+        final boolean stored = inner.containsKey(key);
+
+        if (!stored) {
+            if (present) {
+                unregister(key, old);
+            }
+            return result;
+        }
+
+        if (present) {
+            totalWeight -= weigh(key, old);
+            policy.recordAccess(key);
+        } else {
+            policy.recordInsert(key);
+        }
+        totalWeight += weigh(key, inner.get(key));
+        if (writeTimes != null) {
+            // Reinsert to move the key to the end of the write order.
+            writeTimes.remove(key);
+            writeTimes.put(key, ticker.getAsLong());
+        }
+        evict();
+        return result;
+    }
+
+    @Override
+    public synchronized void putAll(final Map<? extends K, ? extends V> m) {
+        for (final Map.Entry<? extends K, ? extends V> entry : m.entrySet()) {
+            put(entry.getKey(), entry.getValue());
+        }
+    }
+
+    @Override
+    public synchronized V remove(final Object key) {
+        expire();
+        if (!inner.containsKey(key)) {
+            return null;
+        }
+        final K k = Cast.unchecked(key);
+        final V value = inner.remove(k);
+        unregister(k, value);
+        return value;
+    }
+
+    @Override
+    public synchronized void clear() {
+        inner.clear();
+        policy.clear();
+        if (writeTimes != null) {
+            writeTimes.clear();
+        }
+        totalWeight = 0;
+    }
+
+    /**
+     * Clears this cache.
+     */
+    @Override
+    public void forget() {
+        clear();
+    }
+
+    @Override
+    public synchronized Set<K> keySet() {
+        expire();
+        return Collections.unmodifiableSet(inner.keySet());
+    }
+
+    @Override
+    public synchronized Collection<V> values() {
+        expire();
+        return Collections.unmodifiableCollection(inner.values());
+    }
+
+    @Override
+    public synchronized Set<Entry<K, V>> entrySet() {
+        expire();
+        return Collections.unmodifiableSet(inner.entrySet());
+    }
+
+    /**
+     * Removes all expired entries now.
+     * Expired entries are otherwise removed lazily upon the next operation on this map.
+     */
+    public synchronized void cleanUp() {
+        expire();
+    }
+
+    /**
+     * @return The sum of the weights of all entries in this cache.
+     */
+    public synchronized long getTotalWeight() {
+        return totalWeight;
+    }
+
+    public long getMaximumWeight() {
+        return maximumWeight;
+    }
+
+    private long weigh(final K key, final V value) {
+        final long weight = weigher.applyAsLong(key, value);
+        if (weight < 0) {
+            throw new IllegalArgumentException("Weight of entry (" + key + ", " + value + ") is negative!");
+        }
+        return weight;
+    }
+
+    private void unregister(final K key, final V value) {
+        policy.recordRemove(key);
+        totalWeight -= weigh(key, value);
+        if (writeTimes != null) {
+            writeTimes.remove(key);
+        }
+    }
+
+    /**
+     * Removes entries chosen by the policy until the total weight does not exceed the maximum weight.
+     */
+    private void evict() {
+        while (totalWeight > maximumWeight && !inner.isEmpty()) {
+            final K key = policy.victim();
+            final V value = inner.remove(key);
+            unregister(key, value);
+            listener.onEviction(key, value, RemovalCause.SIZE);
+        }
+    }
+
+    /**
+     * Removes all expired entries.
+     * As entries are ordered by their last write, only the expired entries have to be visited.
+     */
+    private void expire() {
+        if (writeTimes == null) {
+            return;
+        }
+
+        final long now = ticker.getAsLong();
+        final Iterator<Map.Entry<K, Long>> it = writeTimes.entrySet().iterator();
+        while (it.hasNext()) {
+            final Map.Entry<K, Long> oldest = it.next();
+            if (now - oldest.getValue() < expireAfterWriteNanos) {
+                return;
+            }
+            final K key = oldest.getKey();
+            it.remove();
+            final V value = inner.remove(key);
+            policy.recordRemove(key);
+            totalWeight -= weigh(key, value);
+            listener.onEviction(key, value, RemovalCause.EXPIRED);
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package org.variantsync.functjonal.map;
+
+import org.apache.commons.lang3.function.FailableBiConsumer;
+import org.apache.commons.lang3.function.FailableFunction;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Binary serialization of values of type T.
+ * For every value t, reading the bytes produced by writing t has to yield a value equal to t.
+ * @param <T> The type of values to serialize.
+ */
+public interface Codec<T> {
+    Codec<Integer> INT = From(DataOutput::writeInt, DataInput::readInt);
+    Codec<Long> LONG = From(DataOutput::writeLong, DataInput::readLong);
+    Codec<Double> DOUBLE = From(DataOutput::writeDouble, DataInput::readDouble);
+    /**
+     * Strings are encoded in modified UTF-8 and thus must not exceed 65535 bytes.
+     */
+    Codec<String> STRING = From(DataOutput::writeUTF, DataInput::readUTF);
+
+    void write(final DataOutput out, final T value) throws IOException;
+
+    T read(final DataInput in) throws IOException;
+
+    static <T> Codec<T> From(
+            final FailableBiConsumer<DataOutput, T, IOException> write,
+            final FailableFunction<DataInput, T, IOException> read)
+    {
+        return new LambdaCodec<>(write, read);
+    }
+}
@@ -0,0 +1,72 @@
+package org.variantsync.functjonal.map;
+
+import org.variantsync.functjonal.category.InplaceSemigroup;
+import org.variantsync.functjonal.category.Semigroup;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * A merge map that can be filled by many threads at once.
+ * In contrast to {@link MergeMap}, each put is a single atomic compute operation on an inner {@link ConcurrentHashMap}.
+ * Thus, concurrent puts to the same key do not lose updates and puts to different keys do not block each other
+ * (the map only locks the bin of the respective key).
+ *
+ * <p>Values may be merged with an {@link InplaceSemigroup}.
+ * In that case, the stored value is mutated while the entry is locked, so concurrent puts are safe.
+ * This relies on {@link ConcurrentHashMap#compute} invoking the merge exactly once per put.
+ * Other concurrent maps (e.g., {@link java.util.concurrent.ConcurrentSkipListMap}) may retry the merge under
+ * contention, which would append a value twice, and are thus not accepted as inner maps.
+ * However, reading a mutable value while other threads still put values for the same key is not synchronized.
+ * Read values only after all writing threads finished or use a pure {@link Semigroup} instead.
+ *
+ * <p>Like its inner concurrent map, this map does not permit null keys or values.
+ *
+ * @param <K> key type
+ * @param <V> value type
+ */
+public class ConcurrentMergeMap<K, V> extends MergeMap<K, V> {
+    private final ConcurrentHashMap<K, V> concurrentInner;
+
+    /**
+     * Creates a concurrent merge map for the given map.
+     * @param inner The concurrent map on which to merge the values of duplicate keys.
+     * @param semigroupFactory A factory returning a semigroup for a value v that
+     *                         is used to merge other values with v.
+     *                         @see MergeMap#MergeMap(java.util.Map, Function)
+     */
+    public ConcurrentMergeMap(final ConcurrentHashMap<K, V> inner, final Function<V, Semigroup<V>> semigroupFactory) {
+        super(inner, semigroupFactory);
+        this.concurrentInner = inner;
+    }
+
+    /**
+     * Creates a concurrent merge map for the given map.
+     * @param inner The concurrent map on which to merge the values of duplicate keys.
+     * @param semigroup A semigroup that is used to merge values.
+     */
+    public ConcurrentMergeMap(final ConcurrentHashMap<K, V> inner, final Semigroup<V> semigroup) {
+        super(inner, semigroup);
+        this.concurrentInner = inner;
+    }
+
+    /**
+     * Creates a concurrent merge map backed by a new {@link ConcurrentHashMap}.
+     * @param semigroup A semigroup that is used to merge values.
+     */
+    public ConcurrentMergeMap(final Semigroup<V> semigroup) {
+        this(new ConcurrentHashMap<>(), semigroup);
+    }
+
+    /**
+     * Atomically associates the given value to the given key if the key is not present or
+     * otherwise merges the given value into the present value.
+     * @return The value associated to the given key after the merge.
+     */
+    @Override
+    public V put(final K key, final V value) {
+        return concurrentInner.compute(key, (k, present) -> present == null
+                ? value
+                : semigroupFactory.apply(present).append(present, value));
+    }
+}
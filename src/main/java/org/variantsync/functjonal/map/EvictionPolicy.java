@@ -0,0 +1,62 @@
+package org.variantsync.functjonal.map;
+
+/**
+ * Decides which entry a {@link CachingMap} evicts when it exceeds its capacity.
+ * A policy observes all inserts, accesses, and removals of keys in the cache.
+ * All methods are expected to run in constant (amortized) time.
+ * Policies are not thread-safe on their own. The cache synchronizes all calls.
+ * @param <K> key type
+ */
+public interface EvictionPolicy<K> {
+    /**
+     * Called when the given key was inserted into the cache.
+     */
+    void recordInsert(final K key);
+
+    /**
+     * Called when the value of the given present key was read or overwritten.
+     */
+    void recordAccess(final K key);
+
+    /**
+     * Called when the given key was removed from the cache for any reason.
+     */
+    void recordRemove(final K key);
+
+    /**
+     * @return The key to evict next. Only called when at least one key is present.
+     */
+    K victim();
+
+    /**
+     * Forgets all keys.
+     */
+    void clear();
+
+    /**
+     * Evicts the least recently used key.
+     */
+    static <K> EvictionPolicy<K> LRU() {
+        return new LruPolicy<>();
+    }
+
+    /**
+     * Evicts the least frequently used key.
+     * Among keys with the same frequency, the key that reached that frequency first is evicted.
+     */
+    static <K> EvictionPolicy<K> LFU() {
+        return new LfuPolicy<>();
+    }
+
+    /**
+     * Window TinyLFU: New keys enter a small LRU window (about 1% of the capacity).
+     * Keys leaving the window compete with the least recently used key of the main segment for admission, where
+     * the key with the higher estimated access frequency (counted in a compact count-min sketch) survives.
+     * The main segment is a segmented LRU that protects keys that were accessed again after their admission.
+     * This combines the recency bias of LRU for bursts with the frequency bias of LFU for popular keys.
+     * @param maximumSize The expected maximum number of entries in the cache. Sizes the window and the sketch.
+     */
+    static <K> EvictionPolicy<K> WindowTinyLFU(final int maximumSize) {
+        return new WindowTinyLfuPolicy<>(maximumSize);
+    }
+}
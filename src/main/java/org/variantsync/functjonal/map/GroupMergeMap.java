@@ -0,0 +1,67 @@
+package org.variantsync.functjonal.map;
+
+import org.variantsync.functjonal.category.Group;
+
+import java.util.Map;
+
+/**
+ * A merge map whose values form a group such that values can be retracted from entries again.
+ * Retracting a value v from the entry w of a key k replaces w by group.subtract(w, v) in constant time
+ * (given constant time access to the inner map).
+ * Entries whose value becomes the neutral element of the group are removed from the map.
+ * Thus, a GroupMergeMap only contains the keys with a non-trivial aggregate, which allows to maintain counts or sums
+ * incrementally over changing inputs.
+ * @param <K> key type
+ * @param <V> value type
+ */
+public class GroupMergeMap<K, V> extends MergeMap<K, V> {
+    private final Group<V> group;
+    private final V neutral;
+
+    /**
+     * Creates a group merge map for the given map.
+     * @param inner The map on which to merge the values of duplicate keys.
+     * @param group The group that is used to merge and retract values.
+     *              Its neutral element is compared to merged values with equals to decide whether an entry
+     *              should be removed.
+     */
+    public GroupMergeMap(final Map<K, V> inner, final Group<V> group) {
+        super(inner, group);
+        this.group = group;
+        this.neutral = group.neutral();
+    }
+
+    /**
+     * Merges the given value into the entry of the given key as {@link MergeMap#put} does.
+     * Removes the entry if the merged value is the neutral element.
+     * @return The merged value.
+     */
+    @Override
+    public V put(final K key, final V value) {
+        final V result = super.put(key, value);
+        if (neutral.equals(result)) {
+            inner.remove(key);
+        }
+        return result;
+    }
+
+    /**
+     * Retracts the given value from the entry of the given key.
+     * If there is no entry for the given key, the inverse of the given value is stored.
+     * Removes the entry if the resulting value is the neutral element.
+     * @return The new value for the given key.
+     */
+    public V retract(final K key, final V value) {
+        return put(key, group.invert(value));
+    }
+
+    /**
+     * Retracts all values in the given map from the respective entries in this map.
+     * @see #retract
+     */
+    public void retractAll(final Map<? extends K, ? extends V> m) {
+        for (var entry : m.entrySet()) {
+            retract(entry.getKey(), entry.getValue());
+        }
+    }
+}
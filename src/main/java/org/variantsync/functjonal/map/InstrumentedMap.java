@@ -0,0 +1,199 @@
+package org.variantsync.functjonal.map;
+
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A map decorator that records how the decorated map is used.
+ * It counts gets (split into hits and misses), puts (split into inserts of new keys and merges into present keys),
+ * and removes, tracks the largest size the map ever had, and samples the latency of these operations.
+ * All counters are {@link LongAdder}s such that concurrent use of the decorated map does not contend on them.
+ * Latencies are measured only for a random sample of operations to keep the overhead low.
+ *
+ * <p>An instrumented map can be stacked with other decorators.
+ * For example, new InstrumentedMap(new MergeMap(...)) observes how many puts are merges while
+ * new MergeMap(new InstrumentedMap(...)) observes the lookups that a MergeMap performs on its inner map.
+ *
+ * <p>Inserts and merges are distinguished by whether the decorated map contains the key before a put.
+ * If other threads modify the decorated map concurrently, this classification is approximate.
+ *
+ * @param <K> key type
+ * @param <V> value type
+ */
+public class InstrumentedMap<K, V> extends MapDecorator<K, V> {
+    /**
+     * Latencies of about one in this many operations are sampled by default.
+     */
+    public static final int DEFAULT_SAMPLING_RATE = 64;
+
+    private final int samplingRate;
+
+    private final LongAdder gets = new LongAdder();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder puts = new LongAdder();
+    private final LongAdder merges = new LongAdder();
+    private final LongAdder removes = new LongAdder();
+    private final LongAccumulator sizeHighWaterMark = new LongAccumulator(Math::max, 0);
+
+    private final LatencyHistogram getLatencies = new LatencyHistogram();
+    private final LatencyHistogram putLatencies = new LatencyHistogram();
+    private final LatencyHistogram removeLatencies = new LatencyHistogram();
+
+    /**
+     * Instruments the given map with the {@link #DEFAULT_SAMPLING_RATE}.
+     */
+    public InstrumentedMap(final Map<K, V> inner) {
+        this(inner, DEFAULT_SAMPLING_RATE);
+    }
+
+    /**
+     * Instruments the given map.
+     * @param samplingRate The latency of about one in samplingRate operations is measured.
+     *                     1 measures all operations.
+     */
+    public InstrumentedMap(final Map<K, V> inner, final int samplingRate) {
+        super(inner);
+        if (samplingRate < 1) {
+            throw new IllegalArgumentException("Sampling rate must be positive but was " + samplingRate + "!");
+        }
+        this.samplingRate = samplingRate;
+        sizeHighWaterMark.accumulate(inner.size());
+    }
+
+    @Override
+    public V get(final Object key) {
+        gets.increment();
+        final boolean sample = sample();
+        final long start = sample ? System.nanoTime() : 0;
+        final V result = super.get(key);
+        if (sample) {
+            getLatencies.record(System.nanoTime() - start);
+        }
+        if (result != null) {
+            hits.increment();
+        }
+        return result;
+    }
+
+    @Override
+    public V put(final K key, final V value) {
+        puts.increment();
+        final boolean present = inner.containsKey(key);
+        final boolean sample = sample();
+        final long start = sample ? System.nanoTime() : 0;
+        final V result = super.put(key, value);
+        if (sample) {
+            putLatencies.record(System.nanoTime() - start);
+        }
+        if (present) {
+            merges.increment();
+        } else {
+            sizeHighWaterMark.accumulate(inner.size());
+        }
+        return result;
+    }
+
+    /**
+     * Puts all entries of the given map via {@link #put} such that each entry is counted.
+     */
+    @Override
+    public void putAll(final Map<? extends K, ? extends V> m) {
+        for (final Map.Entry<? extends K, ? extends V> entry : m.entrySet()) {
+            put(entry.getKey(), entry.getValue());
+        }
+    }
+
+    @Override
+    public V remove(final Object key) {
+        removes.increment();
+        final boolean sample = sample();
+        final long start = sample ? System.nanoTime() : 0;
+        final V result = super.remove(key);
+        if (sample) {
+            removeLatencies.record(System.nanoTime() - start);
+        }
+        return result;
+    }
+
+    private boolean sample() {
+        return samplingRate == 1 || ThreadLocalRandom.current().nextInt(samplingRate) == 0;
+    }
+
+    public long getGets() {
+        return gets.sum();
+    }
+
+    /**
+     * @return The number of gets that returned a non-null value.
+     */
+    public long getHits() {
+        return hits.sum();
+    }
+
+    /**
+     * @return The number of gets that returned null.
+     */
+    public long getMisses() {
+        return gets.sum() - hits.sum();
+    }
+
+    public long getPuts() {
+        return puts.sum();
+    }
+
+    /**
+     * @return The number of puts for a key that was already present.
+     */
+    public long getMerges() {
+        return merges.sum();
+    }
+
+    /**
+     * @return The number of puts for a key that was not present.
+     */
+    public long getInserts() {
+        return puts.sum() - merges.sum();
+    }
+
+    public long getRemoves() {
+        return removes.sum();
+    }
+
+    /**
+     * @return The largest size this map had (as observed after construction and after puts).
+     */
+    public long getSizeHighWaterMark() {
+        return sizeHighWaterMark.get();
+    }
+
+    public LatencyHistogram getGetLatencies() {
+        return getLatencies;
+    }
+
+    public LatencyHistogram getPutLatencies() {
+        return putLatencies;
+    }
+
+    public LatencyHistogram getRemoveLatencies() {
+        return removeLatencies;
+    }
+
+    /**
+     * Resets all counters and histograms.
+     * The size high-water mark is reset to the current size.
+     */
+    public void resetMetrics() {
+        gets.reset();
+        hits.reset();
+        puts.reset();
+        merges.reset();
+        removes.reset();
+        sizeHighWaterMark.reset();
+        sizeHighWaterMark.accumulate(inner.size());
+        getLatencies.reset();
+        putLatencies.reset();
+        removeLatencies.reset();
+    }
+}
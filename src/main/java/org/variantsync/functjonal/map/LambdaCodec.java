@@ -0,0 +1,23 @@
+package org.variantsync.functjonal.map;
+
+import org.apache.commons.lang3.function.FailableBiConsumer;
+import org.apache.commons.lang3.function.FailableFunction;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+record LambdaCodec<T>(
+        FailableBiConsumer<DataOutput, T, IOException> writer,
+        FailableFunction<DataInput, T, IOException> reader
+) implements Codec<T> {
+    @Override
+    public void write(final DataOutput out, final T value) throws IOException {
+        writer.accept(out, value);
+    }
+
+    @Override
+    public T read(final DataInput in) throws IOException {
+        return reader.apply(in);
+    }
+}
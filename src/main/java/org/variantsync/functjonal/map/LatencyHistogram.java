@@ -0,0 +1,82 @@
+package org.variantsync.functjonal.map;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A concurrent histogram of latencies in nanoseconds with exponentially growing buckets.
+ * Bucket i counts latencies in [2^(i-1), 2^i) nanoseconds (bucket 0 counts latencies of 0ns).
+ * Recording a latency is contention-free as each bucket is a {@link LongAdder}.
+ */
+public class LatencyHistogram {
+    private static final int BUCKETS = Long.SIZE;
+
+    private final LongAdder[] buckets = new LongAdder[BUCKETS];
+
+    public LatencyHistogram() {
+        for (int i = 0; i < BUCKETS; ++i) {
+            buckets[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * Records the given latency. Negative latencies are recorded as 0.
+     */
+    public void record(final long nanos) {
+        buckets[BUCKETS - Long.numberOfLeadingZeros(Math.max(0, nanos))].increment();
+    }
+
+    /**
+     * @return The number of recorded latencies.
+     */
+    public long count() {
+        long count = 0;
+        for (final LongAdder bucket : buckets) {
+            count += bucket.sum();
+        }
+        return count;
+    }
+
+    /**
+     * @return The number of recorded latencies in each bucket.
+     */
+    public long[] buckets() {
+        final long[] counts = new long[BUCKETS];
+        for (int i = 0; i < BUCKETS; ++i) {
+            counts[i] = buckets[i].sum();
+        }
+        return counts;
+    }
+
+    /**
+     * Estimates the given percentile by the upper bound of the bucket containing it.
+     * @param p The percentile in [0, 1].
+     * @return An upper bound for the given percentile in nanoseconds or 0 if no latencies were recorded.
+     */
+    public long percentile(final double p) {
+        if (p < 0 || p > 1) {
+            throw new IllegalArgumentException("Percentile must be in [0, 1] but was " + p + "!");
+        }
+
+        final long[] counts = buckets();
+        long total = 0;
+        for (final long c : counts) {
+            total += c;
+        }
+        final long rank = (long) Math.ceil(p * total);
+
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; ++i) {
+            seen += counts[i];
+            if (seen >= rank && seen > 0) {
+                return i == 0 ? 0 : (i == BUCKETS - 1 ? Long.MAX_VALUE : (1L << i) - 1);
+            }
+        }
+        return 0;
+    }
+
+    public void reset() {
+        for (final LongAdder bucket : buckets) {
+            bucket.reset();
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package org.variantsync.functjonal.map;
+
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+
+/**
+ * Constant time LFU: Keys are grouped in buckets of equal access frequency.
+ * Buckets form a doubly linked list sorted by frequency such that moving a key to the next frequency and finding
+ * the least frequently used key are constant time operations.
+ */
+class LfuPolicy<K> implements EvictionPolicy<K> {
+    private static final class Bucket<K> {
+        final long frequency;
+        final LinkedHashSet<K> keys = new LinkedHashSet<>();
+        Bucket<K> prev;
+        Bucket<K> next;
+
+        Bucket(final long frequency) {
+            this.frequency = frequency;
+        }
+    }
+
+    /**
+     * Sentinel of the cyclic list of buckets.
+     */
+    private final Bucket<K> head = new Bucket<>(0);
+    private final Map<K, Bucket<K>> bucketOf = new HashMap<>();
+
+    LfuPolicy() {
+        head.prev = head;
+        head.next = head;
+    }
+
+    @Override
+    public void recordInsert(final K key) {
+        addTo(key, head, 1);
+    }
+
+    @Override
+    public void recordAccess(final K key) {
+        final Bucket<K> bucket = bucketOf.get(key);
+        if (bucket != null) {
+            addTo(key, bucket, bucket.frequency + 1);
+            removeFrom(key, bucket);
+        }
+    }
+
+    @Override
+    public void recordRemove(final K key) {
+        final Bucket<K> bucket = bucketOf.remove(key);
+        if (bucket != null) {
+            removeFrom(key, bucket);
+        }
+    }
+
+    @Override
+    public K victim() {
+        return head.next.keys.iterator().next();
+    }
+
+    @Override
+    public void clear() {
+        head.prev = head;
+        head.next = head;
+        bucketOf.clear();
+    }
+
+    /**
+     * Adds the given key to the bucket with the given frequency that directly follows the given bucket
+     * (creating it if necessary).
+     */
+    private void addTo(final K key, final Bucket<K> predecessor, final long frequency) {
+        Bucket<K> target = predecessor.next;
+        if (target == head || target.frequency != frequency) {
+            target = new Bucket<>(frequency);
+            target.prev = predecessor;
+            target.next = predecessor.next;
+            predecessor.next.prev = target;
+            predecessor.next = target;
+        }
+        target.keys.add(key);
+        bucketOf.put(key, target);
+    }
+
+    private void removeFrom(final K key, final Bucket<K> bucket) {
+        bucket.keys.remove(key);
+        if (bucket.keys.isEmpty()) {
+            bucket.prev.next = bucket.next;
+            bucket.next.prev = bucket.prev;
+        }
+    }
+}
@@ -0,0 +1,333 @@
+package org.variantsync.functjonal.map;
+
+import org.variantsync.functjonal.category.LongSemigroup;
+import org.variantsync.functjonal.functions.LongLongConsumer;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * A merge map from long keys to long values.
+ * Like {@link MergeMap}, values are merged with a semigroup instead of overwritten upon put with a duplicate key.
+ * Keys and values are stored unboxed in flat arrays with open addressing (linear probing).
+ * Thus, in contrast to a MergeMap over a HashMap, neither keys nor values are boxed and no node object is allocated
+ * per entry.
+ * Use {@link #view()} to pass this map to APIs that require a {@link Map}.
+ *
+ * <p>The probing, backward shift deletion, and resizing logic is duplicated in {@link IntIntMergeMap} on purpose:
+ * Java generics cannot abstract over primitive arrays, and sharing the logic through an abstract base class with
+ * per-slot accessors would put virtual calls into the probe loops that this class exists to keep tight.
+ * The two classes differ only in their key and value types and their hash functions and have to be changed together.
+ */
+public class LongLongMergeMap {
+    private static final int DEFAULT_EXPECTED_SIZE = 16;
+    private static final float LOAD_FACTOR = 0.75f;
+    /**
+     * Marks free slots in {@link #keys}. The entry of the key FREE is stored separately.
+     */
+    private static final long FREE = 0;
+
+    private final LongSemigroup semigroup;
+
+    private long[] keys;
+    private long[] values;
+    private int mask;
+    private int maxFill;
+    /**
+     * Number of entries in the arrays (i.e., excluding the entry for the key FREE).
+     */
+    private int size;
+    private boolean containsFreeKey;
+    private long freeKeyValue;
+    private int modCount;
+
+    /**
+     * Creates an empty merge map.
+     * @param semigroup Merges values put for the same key.
+     */
+    public LongLongMergeMap(final LongSemigroup semigroup) {
+        this(semigroup, DEFAULT_EXPECTED_SIZE);
+    }
+
+    /**
+     * Creates an empty merge map that can hold the given number of entries without resizing.
+     * @param semigroup Merges values put for the same key.
+     * @param expectedSize Number of entries that are expected to be put into this map.
+     */
+    public LongLongMergeMap(final LongSemigroup semigroup, final int expectedSize) {
+        if (expectedSize < 0) {
+            throw new IllegalArgumentException("Expected size must not be negative but was " + expectedSize + "!");
+        }
+        this.semigroup = semigroup;
+        allocate(capacityFor(expectedSize));
+    }
+
+    /**
+     * Associates the given value to the given key if the key is not present or otherwise merges the
+     * given value into the present value.
+     * @return The value associated to the given key after the merge.
+     */
+    public long put(final long key, final long value) {
+        if (key == FREE) {
+            freeKeyValue = containsFreeKey ? semigroup.append(freeKeyValue, value) : value;
+            if (!containsFreeKey) {
+                containsFreeKey = true;
+                ++modCount;
+            }
+            return freeKeyValue;
+        }
+
+        int i = slot(key);
+        while (keys[i] != FREE) {
+            if (keys[i] == key) {
+                return values[i] = semigroup.append(values[i], value);
+            }
+            i = (i + 1) & mask;
+        }
+
+        keys[i] = key;
+        values[i] = value;
+        ++modCount;
+        if (++size > maxFill) {
+            allocate(keys.length * 2);
+        }
+        return value;
+    }
+
+    /**
+     * Merges all entries of the given map into this map.
+     */
+    public void putAll(final LongLongMergeMap other) {
+        other.forEach(this::put);
+    }
+
+    /**
+     * @return The value associated to the given key or the given default value if the key is not present.
+     */
+    public long get(final long key, final long defaultValue) {
+        if (key == FREE) {
+            return containsFreeKey ? freeKeyValue : defaultValue;
+        }
+        final int i = find(key);
+        return i < 0 ? defaultValue : values[i];
+    }
+
+    public boolean containsKey(final long key) {
+        return key == FREE ? containsFreeKey : find(key) >= 0;
+    }
+
+    /**
+     * Removes the entry of the given key.
+     * @return True iff an entry was removed.
+     */
+    public boolean remove(final long key) {
+        if (key == FREE) {
+            if (!containsFreeKey) {
+                return false;
+            }
+            containsFreeKey = false;
+            ++modCount;
+            return true;
+        }
+
+        int i = find(key);
+        if (i < 0) {
+            return false;
+        }
+
+        // Backward shift deletion: Move subsequent entries of the probe sequence into the gap
+        // such that lookups do not stop early at the free slot.
+        int next = (i + 1) & mask;
+        while (keys[next] != FREE) {
+            final int home = slot(keys[next]);
+            // Move if home is cyclically not in (i, next].
+            if (((next - home) & mask) >= ((next - i) & mask)) {
+                keys[i] = keys[next];
+                values[i] = values[next];
+                i = next;
+            }
+            next = (next + 1) & mask;
+        }
+        keys[i] = FREE;
+        --size;
+        ++modCount;
+        return true;
+    }
+
+    public int size() {
+        return size + (containsFreeKey ? 1 : 0);
+    }
+
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    public void clear() {
+        Arrays.fill(keys, FREE);
+        size = 0;
+        containsFreeKey = false;
+        ++modCount;
+    }
+
+    /**
+     * Runs the given consumer on each key and value in this map in no particular order.
+     */
+    public void forEach(final LongLongConsumer consumer) {
+        if (containsFreeKey) {
+            consumer.accept(FREE, freeKeyValue);
+        }
+        for (int i = 0; i < keys.length; ++i) {
+            if (keys[i] != FREE) {
+                consumer.accept(keys[i], values[i]);
+            }
+        }
+    }
+
+    /**
+     * @return A live view of this map with boxed keys and values.
+     *         Putting values into the view merges them as {@link #put(long, long)} does.
+     */
+    public Map<Long, Long> view() {
+        return new AbstractMap<>() {
+            @Override
+            public Long get(final Object key) {
+                return key instanceof Long k && LongLongMergeMap.this.containsKey(k) ? LongLongMergeMap.this.get(k, 0L) : null;
+            }
+
+            @Override
+            public boolean containsKey(final Object key) {
+                return key instanceof Long k && LongLongMergeMap.this.containsKey(k);
+            }
+
+            @Override
+            public Long put(final Long key, final Long value) {
+                return LongLongMergeMap.this.put(key, value);
+            }
+
+            @Override
+            public Long remove(final Object key) {
+                final Long present = get(key);
+                if (present != null) {
+                    LongLongMergeMap.this.remove((Long) key);
+                }
+                return present;
+            }
+
+            @Override
+            public int size() {
+                return LongLongMergeMap.this.size();
+            }
+
+            @Override
+            public void clear() {
+                LongLongMergeMap.this.clear();
+            }
+
+            @Override
+            public Set<Entry<Long, Long>> entrySet() {
+                return new AbstractSet<>() {
+                    @Override
+                    public Iterator<Entry<Long, Long>> iterator() {
+                        return new EntryIterator();
+                    }
+
+                    @Override
+                    public int size() {
+                        return LongLongMergeMap.this.size();
+                    }
+                };
+            }
+        };
+    }
+
+    private class EntryIterator implements Iterator<Map.Entry<Long, Long>> {
+        private final int expectedModCount = modCount;
+        private boolean freeKeyVisited = !containsFreeKey;
+        private int next = advance(0);
+
+        private int advance(int i) {
+            while (i < keys.length && keys[i] == FREE) {
+                ++i;
+            }
+            return i;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return !freeKeyVisited || next < keys.length;
+        }
+
+        @Override
+        public Map.Entry<Long, Long> next() {
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+            if (!freeKeyVisited) {
+                freeKeyVisited = true;
+                return new AbstractMap.SimpleImmutableEntry<>(FREE, freeKeyValue);
+            }
+            if (next >= keys.length) {
+                throw new NoSuchElementException();
+            }
+            final Map.Entry<Long, Long> entry = new AbstractMap.SimpleImmutableEntry<>(keys[next], values[next]);
+            next = advance(next + 1);
+            return entry;
+        }
+    }
+
+    private static int capacityFor(final int expectedSize) {
+        final int minCapacity = Math.max(2, (int) Math.ceil(expectedSize / LOAD_FACTOR));
+        return Integer.highestOneBit(minCapacity - 1) << 1;
+    }
+
+    private int slot(final long key) {
+        final long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & mask;
+    }
+
+    /**
+     * @return The index of the given key or -1 if the key is not present.
+     */
+    private int find(final long key) {
+        int i = slot(key);
+        while (keys[i] != FREE) {
+            if (keys[i] == key) {
+                return i;
+            }
+            i = (i + 1) & mask;
+        }
+        return -1;
+    }
+
+    /**
+     * Allocates arrays of the given capacity and reinserts all present entries.
+     */
+    private void allocate(final int capacity) {
+        final long[] oldKeys = keys;
+        final long[] oldValues = values;
+
+        keys = new long[capacity];
+        values = new long[capacity];
+        mask = capacity - 1;
+        maxFill = Math.min(capacity - 1, (int) (capacity * LOAD_FACTOR));
+
+        if (oldKeys != null) {
+            for (int j = 0; j < oldKeys.length; ++j) {
+                if (oldKeys[j] != FREE) {
+                    int i = slot(oldKeys[j]);
+                    while (keys[i] != FREE) {
+                        i = (i + 1) & mask;
+                    }
+                    keys[i] = oldKeys[j];
+                    values[i] = oldValues[j];
+                }
+            }
+        }
+    }
+}
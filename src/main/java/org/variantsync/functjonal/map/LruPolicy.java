@@ -0,0 +1,35 @@
+package org.variantsync.functjonal.map;
+
+import java.util.LinkedHashMap;
+
+class LruPolicy<K> implements EvictionPolicy<K> {
+    /**
+     * Keys in access order, from the least to the most recently used key.
+     */
+    private final LinkedHashMap<K, Boolean> order = new LinkedHashMap<>(16, 0.75f, true);
+
+    @Override
+    public void recordInsert(final K key) {
+        order.put(key, Boolean.TRUE);
+    }
+
+    @Override
+    public void recordAccess(final K key) {
+        order.get(key);
+    }
+
+    @Override
+    public void recordRemove(final K key) {
+        order.remove(key);
+    }
+
+    @Override
+    public K victim() {
+        return order.keySet().iterator().next();
+    }
+
+    @Override
+    public void clear() {
+        order.clear();
+    }
+}
@@ -1,10 +1,54 @@
 package org.variantsync.functjonal.map;
 
+import org.variantsync.functjonal.category.Semigroup;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.function.Function;
+import java.util.function.IntFunction;
 import java.util.function.Supplier;
+import java.util.stream.Collector;
 
 public class MapUtils {
+    /**
+     * Maps with fewer entries are transformed sequentially by the Parallel* methods
+     * as splitting them across threads costs more than it saves.
+     */
+    public static final int PARALLEL_THRESHOLD = 1 << 14;
+
+    /**
+     * @return A hash map that can hold the given number of entries without rehashing.
+     */
+    public static <K, V> HashMap<K, V> NewHashMap(final int expectedSize) {
+        return new HashMap<>(CapacityFor(expectedSize));
+    }
+
+    /**
+     * @return A linked hash map that can hold the given number of entries without rehashing.
+     */
+    public static <K, V> LinkedHashMap<K, V> NewLinkedHashMap(final int expectedSize) {
+        return new LinkedHashMap<>(CapacityFor(expectedSize));
+    }
+
+    private static int CapacityFor(final int expectedSize) {
+        // 0.75 is the default load factor of hash maps.
+        return (int) Math.ceil(expectedSize / 0.75);
+    }
+
+    /**
+     * @return A semigroup that throws an IllegalArgumentException whenever two values are appended.
+     *         Use this semigroup to detect key collisions when transforming maps.
+     */
+    public static <V> Semigroup<V> NoCollisions() {
+        return (a, b) -> {
+            throw new IllegalArgumentException(
+                    "Key collision between values "
+                            + a + " and " + b
+                            + "! Given function is not injective!");
+        };
+    }
+
     public static <K1, K2, V> Map<K2, V> TransKeys(
             Map<K1, V> m,
             Function<K1, K2> f,
@@ -33,4 +77,111 @@ public class MapUtils {
                 newMap
         );
     }
+
+    /**
+     * Transforms the keys of the given map with the given function.
+     * Values of keys that are mapped to the same key are merged with the given semigroup in the iteration order of m.
+     * @param newMap Creates the result map for the given expected size, allowing to pre-size it.
+     */
+    public static <K1, K2, V> Map<K2, V> TransKeys(
+            final Map<K1, V> m,
+            final Function<? super K1, ? extends K2> f,
+            final Semigroup<V> onCollision,
+            final IntFunction<? extends Map<K2, V>> newMap)
+    {
+        final Map<K2, V> result = newMap.apply(m.size());
+        for (final Map.Entry<K1, V> entry : m.entrySet()) {
+            MergeMap.putValue(result, f.apply(entry.getKey()), entry.getValue(), onCollision);
+        }
+        return result;
+    }
+
+    /**
+     * Transforms the keys of the given map with the given injective function.
+     * Large maps are split across the common fork-join pool.
+     * @throws IllegalArgumentException if f maps two keys to the same key.
+     */
+    public static <K1, K2, V> Map<K2, V> ParallelTransKeys(
+            final Map<K1, V> m,
+            final Function<? super K1, ? extends K2> f)
+    {
+        if (m.size() < PARALLEL_THRESHOLD) {
+            final Map<K2, V> result = NewHashMap(m.size());
+            for (final Map.Entry<K1, V> entry : m.entrySet()) {
+                PutInjective(result, f.apply(entry.getKey()), entry.getValue());
+            }
+            return result;
+        }
+
+        return m.entrySet().parallelStream().collect(Collector.<Map.Entry<K1, V>, Map<K2, V>>of(
+                HashMap::new,
+                (result, e) -> PutInjective(result, f.apply(e.getKey()), e.getValue()),
+                (left, right) -> {
+                    final Map<K2, V> larger = left.size() >= right.size() ? left : right;
+                    final Map<K2, V> smaller = larger == left ? right : left;
+                    smaller.forEach((k, v) -> PutInjective(larger, k, v));
+                    return larger;
+                },
+                Collector.Characteristics.IDENTITY_FINISH
+        ));
+    }
+
+    /**
+     * Associates the given value to the given key in the given map.
+     * @throws IllegalArgumentException if the key is already present.
+     */
+    private static <K, V> void PutInjective(final Map<K, V> m, final K key, final V value) {
+        final V present = m.putIfAbsent(key, value);
+        if (present != null) {
+            throw new IllegalArgumentException(
+                    "Key collision at key "
+                            + key
+                            + " between values "
+                            + present + " and " + value
+                            + "! Given function is not injective!");
+        }
+    }
+
+    /**
+     * Transforms the keys of the given map with the given function.
+     * Values of keys that are mapped to the same key are merged with the given semigroup in the iteration order of m.
+     * Large maps are split across the common fork-join pool, where each thread transforms its part into a
+     * partial map and partial maps are merged pairwise. Small maps are transformed into a pre-sized map directly.
+     * @return A new hash map.
+     */
+    public static <K1, K2, V> Map<K2, V> ParallelTransKeys(
+            final Map<K1, V> m,
+            final Function<? super K1, ? extends K2> f,
+            final Semigroup<V> onCollision)
+    {
+        return ParallelBimap(m, f, Function.identity(), onCollision);
+    }
+
+    /**
+     * Transforms the keys and values of the given map.
+     * Values of keys that are mapped to the same key are merged with the given semigroup in the iteration order of m.
+     * Large maps are split across the common fork-join pool, where each thread transforms its part into a
+     * partial map and partial maps are merged pairwise. Small maps are transformed into a pre-sized map directly.
+     * @return A new hash map.
+     */
+    public static <K1, K2, V1, V2> Map<K2, V2> ParallelBimap(
+            final Map<K1, V1> m,
+            final Function<? super K1, ? extends K2> key,
+            final Function<? super V1, ? extends V2> val,
+            final Semigroup<V2> onCollision)
+    {
+        if (m.size() < PARALLEL_THRESHOLD) {
+            final Map<K2, V2> result = NewHashMap(m.size());
+            for (final Map.Entry<K1, V1> entry : m.entrySet()) {
+                MergeMap.putValue(result, key.apply(entry.getKey()), val.apply(entry.getValue()), onCollision);
+            }
+            return result;
+        }
+
+        return m.entrySet().parallelStream().collect(MergeMapCollectors.<Map.Entry<K1, V1>, K2, V2>toMergeMap(
+                e -> key.apply(e.getKey()),
+                e -> val.apply(e.getValue()),
+                onCollision
+        )).unwrap();
+    }
 }
@@ -16,7 +16,7 @@ import java.util.function.Function;
 public class MergeMap<K, V> extends MapDecorator<K, V> {
     public final InplaceSemigroup<MergeMap<K, V>> ISEMIGROUP = MergeMap::append;
 
-    private final Function<V, Semigroup<V>> semigroupFactory;
+    protected final Function<V, Semigroup<V>> semigroupFactory;
 
     /**
      * Creates a merge map for the given map.
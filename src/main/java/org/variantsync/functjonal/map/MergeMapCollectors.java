@@ -0,0 +1,146 @@
+package org.variantsync.functjonal.map;
+
+import org.variantsync.functjonal.Cast;
+import org.variantsync.functjonal.category.Semigroup;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collector;
+import java.util.stream.IntStream;
+
+/**
+ * Collectors that build {@link MergeMap}s from (parallel) streams.
+ * Each thread fills its own partial map without synchronization.
+ * Partial maps are combined pairwise along the split tree of the stream, which is balanced for
+ * well-splitting sources, by merging the smaller map into the larger one.
+ * Values are always composed in encounter order, so the semigroup does not have to be commutative.
+ */
+public final class MergeMapCollectors {
+    private MergeMapCollectors() {}
+
+    /**
+     * Collects elements into a MergeMap over a {@link HashMap}.
+     * @param key Computes the key of each element.
+     * @param value Computes the value of each element.
+     * @param semigroup Merges values of elements with the same key.
+     */
+    public static <T, K, V> Collector<T, ?, MergeMap<K, V>> toMergeMap(
+            final Function<? super T, ? extends K> key,
+            final Function<? super T, ? extends V> value,
+            final Semigroup<V> semigroup)
+    {
+        return toMergeMap(key, value, semigroup, HashMap::new);
+    }
+
+    /**
+     * Collects elements into a MergeMap over maps created by the given factory.
+     * @param key Computes the key of each element.
+     * @param value Computes the value of each element.
+     * @param semigroup Merges values of elements with the same key.
+     * @param newMap Creates the inner maps of the partial and final MergeMaps.
+     */
+    public static <T, K, V> Collector<T, ?, MergeMap<K, V>> toMergeMap(
+            final Function<? super T, ? extends K> key,
+            final Function<? super T, ? extends V> value,
+            final Semigroup<V> semigroup,
+            final Supplier<Map<K, V>> newMap)
+    {
+        return Collector.<T, MergeMap<K, V>>of(
+                () -> new MergeMap<>(newMap.get(), semigroup),
+                (m, t) -> m.put(key.apply(t), value.apply(t)),
+                (left, right) -> combine(left.unwrap(), right.unwrap(), semigroup) == left.unwrap() ? left : right,
+                Collector.Characteristics.IDENTITY_FINISH
+        );
+    }
+
+    /**
+     * Collects elements into a MergeMap over a {@link HashMap} for large key spaces.
+     * Each partial result is split into the given number of partitions by the hash of the keys.
+     * Thus, two partial results are combined by merging their partitions independently and in parallel.
+     * @param key Computes the key of each element.
+     * @param value Computes the value of each element.
+     * @param semigroup Merges values of elements with the same key.
+     * @param partitions The number of partitions. Rounded up to the next power of two.
+     */
+    public static <T, K, V> Collector<T, ?, MergeMap<K, V>> toPartitionedMergeMap(
+            final Function<? super T, ? extends K> key,
+            final Function<? super T, ? extends V> value,
+            final Semigroup<V> semigroup,
+            final int partitions)
+    {
+        if (partitions < 1) {
+            throw new IllegalArgumentException("Number of partitions must be positive but was " + partitions + "!");
+        }
+        final int n = Integer.highestOneBit(partitions) == partitions ? partitions : Integer.highestOneBit(partitions) << 1;
+
+        return Collector.<T, Partitions<K, V>, MergeMap<K, V>>of(
+                () -> new Partitions<>(n),
+                (p, t) -> {
+                    final K k = key.apply(t);
+                    MergeMap.putValue(p.partitionOf(k), k, value.apply(t), semigroup);
+                },
+                (left, right) -> {
+                    IntStream.range(0, n).parallel().forEach(i ->
+                            left.parts[i] = combine(left.parts[i], right.parts[i], semigroup));
+                    return left;
+                },
+                p -> new MergeMap<>(p.concat(), semigroup)
+        );
+    }
+
+    /**
+     * Merges two maps where all values in left precede all values in right.
+     * The smaller map is merged into the larger map.
+     * The values of duplicate keys k are merged to semigroup.append(left.get(k), right.get(k)).
+     * @return The larger of both maps which now contains all merged entries.
+     */
+    public static <K, V> Map<K, V> combine(final Map<K, V> left, final Map<K, V> right, final Semigroup<V> semigroup) {
+        if (left.size() >= right.size()) {
+            MergeMap.putAllValues(left, right, semigroup);
+            return left;
+        }
+
+        final Semigroup<V> flipped = (r, l) -> semigroup.append(l, r);
+        MergeMap.putAllValues(right, left, flipped);
+        return right;
+    }
+
+    private static class Partitions<K, V> {
+        private final Map<K, V>[] parts;
+
+        Partitions(final int n) {
+            parts = Cast.unchecked(new Map<?, ?>[n]);
+            for (int i = 0; i < n; ++i) {
+                parts[i] = new HashMap<>();
+            }
+        }
+
+        Map<K, V> partitionOf(final K key) {
+            if (parts.length == 1) {
+                return parts[0];
+            }
+            // Choose the partition by the upper bits of a scrambled hash.
+            // HashMap chooses buckets by the lower bits, so all buckets of each partition remain usable.
+            final int h = (key == null ? 0 : key.hashCode()) * 0x9E3779B9;
+            return parts[h >>> (Integer.SIZE - Integer.numberOfTrailingZeros(parts.length))];
+        }
+
+        /**
+         * Partitions have disjoint keys so they can be concatenated without merging.
+         */
+        Map<K, V> concat() {
+            int size = 0;
+            for (final Map<K, V> part : parts) {
+                size += part.size();
+            }
+
+            final Map<K, V> result = MapUtils.NewHashMap(size);
+            for (final Map<K, V> part : parts) {
+                result.putAll(part);
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,683 @@
+package org.variantsync.functjonal.map;
+
+import org.variantsync.functjonal.Cast;
+import org.variantsync.functjonal.category.InplaceSemigroup;
+import org.variantsync.functjonal.category.Semigroup;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.BiConsumer;
+
+/**
+ * An immutable hash map with structural sharing implemented as a hash array mapped trie (HAMT).
+ * Each node of the trie branches on five bits of the hash of keys and stores only the present branches
+ * (indexed by a 32-bit bitmap).
+ * Thus, {@link #get(Object)}, {@link #with(Object, Object)}, and {@link #without(Object)} run in O(log32 n).
+ * Updates copy only the nodes on the path to the updated key and share all other nodes with the original map.
+ * This makes taking and publishing snapshots cheap: A snapshot is just the current map.
+ *
+ * <p>{@link #unionWith(PersistentHashMap, Semigroup)} merges two maps like {@link MergeMap} does and reuses
+ * each subtree that is present in only one of both maps without visiting it.
+ * A {@link Builder} fills a map with MergeMap semantics and mutates nodes it created itself in place.
+ * Values, however, are shared with all maps derived from a map. Thus, all methods that merge values reject
+ * {@link InplaceSemigroup}s with an {@link IllegalArgumentException} because appending in place would change
+ * the values of older versions.
+ *
+ * <p>This map implements {@link Map} for compatibility but is unmodifiable. Null keys and null values are not
+ * permitted.
+ *
+ * @param <K> key type
+ * @param <V> value type
+ */
+public final class PersistentHashMap<K, V> extends AbstractMap<K, V> {
+    private static final PersistentHashMap<?, ?> EMPTY = new PersistentHashMap<>(null, 0);
+    private static final int BITS = 5;
+    private static final int MASK = (1 << BITS) - 1;
+
+    /**
+     * The root of the trie or null iff this map is empty.
+     */
+    private final Node root;
+    /**
+     * Number of entries or -1 if not computed yet.
+     */
+    private int size;
+
+    private PersistentHashMap(final Node root, final int size) {
+        this.root = root;
+        this.size = size;
+    }
+
+    public static <K, V> PersistentHashMap<K, V> empty() {
+        return Cast.unchecked(EMPTY);
+    }
+
+    /**
+     * Creates a builder that starts with an empty map and merges the values of duplicate keys with the given semigroup.
+     */
+    public static <K, V> Builder<K, V> builder(final Semigroup<V> semigroup) {
+        return new Builder<>(null, 0, requireNotInplace(semigroup));
+    }
+
+    /**
+     * Creates a builder that starts with this map and merges the values of duplicate keys with the given semigroup.
+     * The builder shares all nodes with this map but never mutates them.
+     */
+    public Builder<K, V> toBuilder(final Semigroup<V> semigroup) {
+        return new Builder<>(root, size(), requireNotInplace(semigroup));
+    }
+
+    @Override
+    public V get(final Object key) {
+        if (root == null || key == null) {
+            return null;
+        }
+        return Cast.unchecked(root.find(0, hash(key), key));
+    }
+
+    @Override
+    public boolean containsKey(final Object key) {
+        return get(key) != null;
+    }
+
+    @Override
+    public int size() {
+        if (size < 0) {
+            final int[] count = {0};
+            forEach((k, v) -> ++count[0]);
+            size = count[0];
+        }
+        return size;
+    }
+
+    /**
+     * @return A map with the entries of this map where the given key is associated to the given value.
+     */
+    public PersistentHashMap<K, V> with(final K key, final V value) {
+        return mergeWith(key, value, null);
+    }
+
+    /**
+     * @return A map with the entries of this map where the given value is merged into the value of the given key
+     *         with semigroup.append(present, value) as done by {@link MergeMap#put}.
+     */
+    public PersistentHashMap<K, V> mergeWith(final K key, final V value, final Semigroup<V> semigroup) {
+        requireNotInplace(semigroup);
+        Objects.requireNonNull(key);
+        Objects.requireNonNull(value);
+        final Box added = new Box();
+        final int h = hash(key);
+        final Node newRoot = root == null
+                ? BitmapNode.EMPTY.assoc(null, 0, h, key, value, Cast.unchecked(semigroup), added)
+                : root.assoc(null, 0, h, key, value, Cast.unchecked(semigroup), added);
+        if (newRoot == root) {
+            return this;
+        }
+        return new PersistentHashMap<>(newRoot, size < 0 ? -1 : (added.value ? size + 1 : size));
+    }
+
+    /**
+     * @return A map with the entries of this map except for the entry of the given key.
+     */
+    public PersistentHashMap<K, V> without(final Object key) {
+        if (root == null || key == null) {
+            return this;
+        }
+        final Node newRoot = root.without(null, 0, hash(key), key);
+        if (newRoot == root) {
+            return this;
+        }
+        return new PersistentHashMap<>(newRoot, size >= 0 ? size - 1 : -1);
+    }
+
+    /**
+     * Merges both maps.
+     * Values of keys present in both maps are merged with semigroup.append(this.get(k), other.get(k)).
+     * Subtrees that exist in only one of the maps are reused without visiting them.
+     */
+    public PersistentHashMap<K, V> unionWith(final PersistentHashMap<K, V> other, final Semigroup<V> semigroup) {
+        return union(other, semigroup, false);
+    }
+
+    /**
+     * Merges both maps as {@link #unionWith} does but assumes that the given semigroup is idempotent
+     * (i.e., semigroup.append(v, v) equals v).
+     * Then, subtrees that are shared by both maps (e.g., because one map is a snapshot of the other) can be reused
+     * without visiting them as well.
+     * Like all merging methods, this method rejects {@link InplaceSemigroup}s because values of both maps are shared
+     * with the merged map and their other versions.
+     */
+    public PersistentHashMap<K, V> unionWithIdempotent(final PersistentHashMap<K, V> other, final Semigroup<V> semigroup) {
+        return union(other, semigroup, true);
+    }
+
+    private PersistentHashMap<K, V> union(final PersistentHashMap<K, V> other, final Semigroup<V> semigroup, final boolean idempotent) {
+        requireNotInplace(semigroup);
+        if (other.root == null) {
+            return this;
+        }
+        if (root == null) {
+            return other;
+        }
+
+        final Union u = new Union(Cast.unchecked(semigroup), idempotent);
+        final Node newRoot = u.union(0, root, other.root);
+        final int newSize = u.sizeUnknown || size < 0 || other.size < 0 ? -1 : size + other.size - u.duplicates;
+        return new PersistentHashMap<>(newRoot, newSize);
+    }
+
+    private static <V> Semigroup<V> requireNotInplace(final Semigroup<V> semigroup) {
+        if (semigroup instanceof InplaceSemigroup) {
+            throw new IllegalArgumentException("PersistentHashMap requires semigroups that do not modify their arguments but got an InplaceSemigroup!");
+        }
+        return semigroup;
+    }
+
+    /**
+     * Runs the given consumer on all entries of this map without allocating entry objects.
+     */
+    @Override
+    public void forEach(final BiConsumer<? super K, ? super V> consumer) {
+        if (root != null) {
+            root.forEach(Cast.unchecked(consumer));
+        }
+    }
+
+    @Override
+    public Set<Entry<K, V>> entrySet() {
+        return new AbstractSet<>() {
+            @Override
+            public Iterator<Entry<K, V>> iterator() {
+                return new EntryIterator<>(root);
+            }
+
+            @Override
+            public int size() {
+                return PersistentHashMap.this.size();
+            }
+        };
+    }
+
+    /**
+     * Fills a persistent map with MergeMap semantics.
+     * Nodes created by a builder are owned by it and mutated in place until {@link #build()} is called.
+     * Nodes of other maps are copied on write.
+     * @param <K> key type
+     * @param <V> value type
+     */
+    public static final class Builder<K, V> {
+        private final Semigroup<V> semigroup;
+        private Edit edit = new Edit();
+        private Node root;
+        private int size;
+
+        private Builder(final Node root, final int size, final Semigroup<V> semigroup) {
+            this.root = root;
+            this.size = size;
+            this.semigroup = semigroup;
+        }
+
+        /**
+         * Associates the given value to the given key if the key is not present or otherwise merges the
+         * given value into the present value.
+         */
+        public Builder<K, V> put(final K key, final V value) {
+            Objects.requireNonNull(key);
+            Objects.requireNonNull(value);
+            final Box added = new Box();
+            final int h = hash(key);
+            root = root == null
+                    ? BitmapNode.EMPTY.assoc(edit, 0, h, key, value, Cast.unchecked(semigroup), added)
+                    : root.assoc(edit, 0, h, key, value, Cast.unchecked(semigroup), added);
+            if (added.value) {
+                ++size;
+            }
+            return this;
+        }
+
+        public Builder<K, V> putAll(final Map<? extends K, ? extends V> m) {
+            for (final Map.Entry<? extends K, ? extends V> entry : m.entrySet()) {
+                put(entry.getKey(), entry.getValue());
+            }
+            return this;
+        }
+
+        /**
+         * @return A persistent map with all entries put so far.
+         *         This builder remains usable but will not mutate the nodes of the returned map.
+         */
+        public PersistentHashMap<K, V> build() {
+            edit = new Edit();
+            return root == null ? empty() : new PersistentHashMap<>(root, size);
+        }
+    }
+
+    /// Implementation
+
+    private static int hash(final Object key) {
+        final int h = key.hashCode();
+        return h ^ (h >>> 16);
+    }
+
+    private static int bit(final int hash, final int shift) {
+        return 1 << ((hash >>> shift) & MASK);
+    }
+
+    /**
+     * Token identifying the owner of mutable nodes.
+     */
+    private static final class Edit {}
+
+    private static final class Box {
+        boolean value = false;
+    }
+
+    private static Semigroup<Object> flip(final Semigroup<Object> s) {
+        return (a, b) -> s.append(b, a);
+    }
+
+    private static Node createNode(final Edit edit, final int shift, final Object k1, final Object v1, final int h2, final Object k2, final Object v2) {
+        final int h1 = hash(k1);
+        if (h1 == h2) {
+            return new CollisionNode(edit, h1, new Object[] {k1, v1, k2, v2});
+        }
+        final Box added = new Box();
+        return BitmapNode.EMPTY
+                .assoc(edit, shift, h1, k1, v1, null, added)
+                .assoc(edit, shift, h2, k2, v2, null, added);
+    }
+
+    private interface Node {
+        /**
+         * @return The value of the given key or null.
+         */
+        Object find(int shift, int hash, Object key);
+
+        /**
+         * @param merge Merges present values with the new value or null to replace present values.
+         * @param added Set to true iff a new entry was created.
+         */
+        Node assoc(Edit edit, int shift, int hash, Object key, Object value, Semigroup<Object> merge, Box added);
+
+        /**
+         * @return The node without the given key, this if the key was not present, or null if the node became empty.
+         */
+        Node without(Edit edit, int shift, int hash, Object key);
+
+        void forEach(BiConsumer<Object, Object> consumer);
+    }
+
+    /**
+     * A trie node storing up to 32 branches. Each branch is either an entry (key, value) or a (null, subnode) pair.
+     */
+    private static final class BitmapNode implements Node {
+        static final BitmapNode EMPTY = new BitmapNode(null, 0, new Object[0]);
+
+        final Edit edit;
+        int bitmap;
+        Object[] array;
+
+        BitmapNode(final Edit edit, final int bitmap, final Object[] array) {
+            this.edit = edit;
+            this.bitmap = bitmap;
+            this.array = array;
+        }
+
+        int index(final int bit) {
+            return Integer.bitCount(bitmap & (bit - 1));
+        }
+
+        @Override
+        public Object find(final int shift, final int hash, final Object key) {
+            final int bit = bit(hash, shift);
+            if ((bitmap & bit) == 0) {
+                return null;
+            }
+            final int i = 2 * index(bit);
+            final Object k = array[i];
+            final Object v = array[i + 1];
+            if (k == null) {
+                return ((Node) v).find(shift + BITS, hash, key);
+            }
+            return key.equals(k) ? v : null;
+        }
+
+        @Override
+        public Node assoc(final Edit edit, final int shift, final int hash, final Object key, final Object value, final Semigroup<Object> merge, final Box added) {
+            final int bit = bit(hash, shift);
+            final int i = 2 * index(bit);
+
+            if ((bitmap & bit) != 0) {
+                final Object k = array[i];
+                final Object v = array[i + 1];
+                if (k == null) {
+                    final Node n = ((Node) v).assoc(edit, shift + BITS, hash, key, value, merge, added);
+                    return n == v ? this : set(edit, i + 1, n);
+                }
+                if (key.equals(k)) {
+                    final Object merged = merge == null ? value : merge.append(v, value);
+                    return merged == v ? this : set(edit, i + 1, merged);
+                }
+                added.value = true;
+                return set(edit, i, null, createNode(edit, shift + BITS, k, v, hash, key, value));
+            }
+
+            added.value = true;
+            final int n = Integer.bitCount(bitmap);
+            final Object[] newArray = new Object[2 * (n + 1)];
+            System.arraycopy(array, 0, newArray, 0, i);
+            newArray[i] = key;
+            newArray[i + 1] = value;
+            System.arraycopy(array, i, newArray, i + 2, 2 * n - i);
+            if (isOwnedBy(edit)) {
+                bitmap |= bit;
+                array = newArray;
+                return this;
+            }
+            return new BitmapNode(edit, bitmap | bit, newArray);
+        }
+
+        @Override
+        public Node without(final Edit edit, final int shift, final int hash, final Object key) {
+            final int bit = bit(hash, shift);
+            if ((bitmap & bit) == 0) {
+                return this;
+            }
+            final int i = 2 * index(bit);
+            final Object k = array[i];
+            final Object v = array[i + 1];
+            if (k == null) {
+                final Node n = ((Node) v).without(edit, shift + BITS, hash, key);
+                if (n == v) {
+                    return this;
+                }
+                if (n != null) {
+                    return set(edit, i + 1, n);
+                }
+            } else if (!key.equals(k)) {
+                return this;
+            }
+
+            if (bitmap == bit) {
+                return null;
+            }
+            final Object[] newArray = new Object[array.length - 2];
+            System.arraycopy(array, 0, newArray, 0, i);
+            System.arraycopy(array, i + 2, newArray, i, array.length - i - 2);
+            return new BitmapNode(edit, bitmap ^ bit, newArray);
+        }
+
+        @Override
+        public void forEach(final BiConsumer<Object, Object> consumer) {
+            for (int i = 0; i < array.length; i += 2) {
+                if (array[i] == null) {
+                    ((Node) array[i + 1]).forEach(consumer);
+                } else {
+                    consumer.accept(array[i], array[i + 1]);
+                }
+            }
+        }
+
+        private boolean isOwnedBy(final Edit edit) {
+            return edit != null && this.edit == edit;
+        }
+
+        private BitmapNode set(final Edit edit, final int i, final Object a) {
+            final BitmapNode target = isOwnedBy(edit) ? this : new BitmapNode(edit, bitmap, array.clone());
+            target.array[i] = a;
+            return target;
+        }
+
+        private BitmapNode set(final Edit edit, final int i, final Object a, final Object b) {
+            final BitmapNode target = isOwnedBy(edit) ? this : new BitmapNode(edit, bitmap, array.clone());
+            target.array[i] = a;
+            target.array[i + 1] = b;
+            return target;
+        }
+    }
+
+    /**
+     * A leaf node storing entries whose keys have the same hash.
+     */
+    private static final class CollisionNode implements Node {
+        final Edit edit;
+        final int hash;
+        final Object[] array;
+
+        CollisionNode(final Edit edit, final int hash, final Object[] array) {
+            this.edit = edit;
+            this.hash = hash;
+            this.array = array;
+        }
+
+        int indexOf(final Object key) {
+            for (int i = 0; i < array.length; i += 2) {
+                if (key.equals(array[i])) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        @Override
+        public Object find(final int shift, final int hash, final Object key) {
+            final int i = indexOf(key);
+            return i < 0 ? null : array[i + 1];
+        }
+
+        @Override
+        public Node assoc(final Edit edit, final int shift, final int hash, final Object key, final Object value, final Semigroup<Object> merge, final Box added) {
+            if (hash != this.hash) {
+                // Push this node one level down.
+                return new BitmapNode(edit, bit(this.hash, shift), new Object[] {null, this})
+                        .assoc(edit, shift, hash, key, value, merge, added);
+            }
+
+            final int i = indexOf(key);
+            if (i >= 0) {
+                final Object merged = merge == null ? value : merge.append(array[i + 1], value);
+                if (merged == array[i + 1]) {
+                    return this;
+                }
+                final Object[] newArray = edit != null && this.edit == edit ? array : array.clone();
+                newArray[i + 1] = merged;
+                return newArray == array ? this : new CollisionNode(edit, hash, newArray);
+            }
+
+            added.value = true;
+            final Object[] newArray = new Object[array.length + 2];
+            System.arraycopy(array, 0, newArray, 0, array.length);
+            newArray[array.length] = key;
+            newArray[array.length + 1] = value;
+            return new CollisionNode(edit, hash, newArray);
+        }
+
+        @Override
+        public Node without(final Edit edit, final int shift, final int hash, final Object key) {
+            final int i = indexOf(key);
+            if (i < 0) {
+                return this;
+            }
+            if (array.length == 2) {
+                return null;
+            }
+            final Object[] newArray = new Object[array.length - 2];
+            System.arraycopy(array, 0, newArray, 0, i);
+            System.arraycopy(array, i + 2, newArray, i, array.length - i - 2);
+            return new CollisionNode(edit, hash, newArray);
+        }
+
+        @Override
+        public void forEach(final BiConsumer<Object, Object> consumer) {
+            for (int i = 0; i < array.length; i += 2) {
+                consumer.accept(array[i], array[i + 1]);
+            }
+        }
+    }
+
+    /**
+     * State of a union of two tries.
+     */
+    private static final class Union {
+        final Semigroup<Object> semigroup;
+        final Semigroup<Object> flipped;
+        final boolean idempotent;
+        /**
+         * Number of keys present in both tries (if known).
+         */
+        int duplicates = 0;
+        /**
+         * Set when a shared subtree was skipped without counting its entries.
+         */
+        boolean sizeUnknown = false;
+
+        Union(final Semigroup<Object> semigroup, final boolean idempotent) {
+            this.semigroup = semigroup;
+            this.flipped = flip(semigroup);
+            this.idempotent = idempotent;
+        }
+
+        Node union(final int shift, final Node a, final Node b) {
+            if (a == b && idempotent) {
+                sizeUnknown = true;
+                return a;
+            }
+            if (b instanceof CollisionNode c) {
+                return assocAll(shift, a, c, semigroup);
+            }
+            if (a instanceof CollisionNode c) {
+                return assocAll(shift, b, c, flipped);
+            }
+
+            final BitmapNode x = (BitmapNode) a;
+            final BitmapNode y = (BitmapNode) b;
+            final int bitmap = x.bitmap | y.bitmap;
+            final Object[] array = new Object[2 * Integer.bitCount(bitmap)];
+            int i = 0;
+            for (int remaining = bitmap; remaining != 0; remaining &= remaining - 1) {
+                final int bit = Integer.lowestOneBit(remaining);
+                if ((y.bitmap & bit) == 0) {
+                    final int xi = 2 * x.index(bit);
+                    array[i] = x.array[xi];
+                    array[i + 1] = x.array[xi + 1];
+                } else if ((x.bitmap & bit) == 0) {
+                    final int yi = 2 * y.index(bit);
+                    array[i] = y.array[yi];
+                    array[i + 1] = y.array[yi + 1];
+                } else {
+                    final int xi = 2 * x.index(bit);
+                    final int yi = 2 * y.index(bit);
+                    unionBranch(shift + BITS,
+                            x.array[xi], x.array[xi + 1],
+                            y.array[yi], y.array[yi + 1],
+                            array, i);
+                }
+                i += 2;
+            }
+            return new BitmapNode(null, bitmap, array);
+        }
+
+        /**
+         * Writes the union of the branches (xk, xv) and (yk, yv) to target[i] and target[i + 1].
+         */
+        private void unionBranch(final int shift, final Object xk, final Object xv, final Object yk, final Object yv, final Object[] target, final int i) {
+            if (xk == null && yk == null) {
+                target[i + 1] = union(shift, (Node) xv, (Node) yv);
+            } else if (xk == null) {
+                target[i + 1] = assoc(shift, (Node) xv, yk, yv, semigroup);
+            } else if (yk == null) {
+                target[i + 1] = assoc(shift, (Node) yv, xk, xv, flipped);
+            } else if (xk.equals(yk)) {
+                ++duplicates;
+                target[i] = xk;
+                target[i + 1] = semigroup.append(xv, yv);
+            } else {
+                target[i + 1] = createNode(null, shift, xk, xv, hash(yk), yk, yv);
+            }
+        }
+
+        private Node assoc(final int shift, final Node node, final Object key, final Object value, final Semigroup<Object> merge) {
+            final Box added = new Box();
+            final Node result = node.assoc(null, shift, hash(key), key, value, merge, added);
+            if (!added.value) {
+                ++duplicates;
+            }
+            return result;
+        }
+
+        private Node assocAll(final int shift, Node node, final CollisionNode c, final Semigroup<Object> merge) {
+            for (int i = 0; i < c.array.length; i += 2) {
+                node = assoc(shift, node, c.array[i], c.array[i + 1], merge);
+            }
+            return node;
+        }
+    }
+
+    /**
+     * Depth-first iterator over all entries of a trie.
+     */
+    private static final class EntryIterator<K, V> implements Iterator<Entry<K, V>> {
+        /**
+         * Stack of arrays of the visited nodes and the next index to visit in each array.
+         */
+        private final ArrayDeque<Object[]> arrays = new ArrayDeque<>();
+        private final ArrayDeque<int[]> indices = new ArrayDeque<>();
+        private Entry<K, V> next;
+
+        EntryIterator(final Node root) {
+            if (root != null) {
+                push(root);
+            }
+            advance();
+        }
+
+        private void push(final Node node) {
+            arrays.push(node instanceof BitmapNode b ? b.array : ((CollisionNode) node).array);
+            indices.push(new int[] {0});
+        }
+
+        private void advance() {
+            next = null;
+            while (!arrays.isEmpty()) {
+                final Object[] array = arrays.peek();
+                final int[] index = indices.peek();
+                if (index[0] >= array.length) {
+                    arrays.pop();
+                    indices.pop();
+                    continue;
+                }
+
+                final Object k = array[index[0]];
+                final Object v = array[index[0] + 1];
+                index[0] += 2;
+                if (k == null) {
+                    push((Node) v);
+                } else {
+                    next = new SimpleImmutableEntry<>(Cast.unchecked(k), Cast.unchecked(v));
+                    return;
+                }
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        @Override
+        public Entry<K, V> next() {
+            if (next == null) {
+                throw new NoSuchElementException();
+            }
+            final Entry<K, V> result = next;
+            advance();
+            return result;
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package org.variantsync.functjonal.map;
+
+import org.variantsync.functjonal.category.InplaceSemigroup;
+import org.variantsync.functjonal.category.Semigroup;
+
+import java.util.Comparator;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * A {@link MergeMap} whose keys are sorted and that can merge all values within a key range in O(log n).
+ * Values are stored in a balanced search tree in which each node caches the merge of all values in its subtree.
+ * Thus, {@link #foldRange} only has to merge O(log n) cached values instead of scanning the range.
+ * For example, when aggregating values by timestamps, the aggregate of any time interval is available
+ * without iterating all timestamps in that interval.
+ *
+ * <p>The semigroup (or semigroups created by the semigroup factory) must be associative
+ * because ranges are merged in a tree-shaped order.
+ * Values are always merged in ascending key order.
+ * Because values are cached as summaries and reused as operands of later merges, semigroups must not modify
+ * their arguments (i.e., they must not be {@link InplaceSemigroup}s).
+ * Null values are not supported.
+ *
+ * @param <K> key type
+ * @param <V> value type
+ */
+public class SortedMergeMap<K, V> extends MergeMap<K, V> {
+    private final SummaryTreeMap<K, V> tree;
+
+    /**
+     * Creates an empty sorted merge map.
+     * @param keyOrder Total order on keys that is consistent with equals.
+     * @param semigroupFactory See {@link MergeMap#MergeMap(java.util.Map, Function)}.
+     *                         Also used to merge values of different keys when folding ranges.
+     *                         Merging throws an IllegalArgumentException if the factory returns an
+     *                         {@link InplaceSemigroup}.
+     */
+    public SortedMergeMap(final Comparator<? super K> keyOrder, final Function<V, Semigroup<V>> semigroupFactory) {
+        this(new SummaryTreeMap<>(keyOrder, (a, b) -> pureSemigroupFor(semigroupFactory, a).append(a, b)), semigroupFactory);
+    }
+
+    /**
+     * Creates an empty sorted merge map.
+     * @param keyOrder Total order on keys that is consistent with equals.
+     * @param semigroup Merges values of duplicate keys and values of different keys when folding ranges.
+     * @throws IllegalArgumentException if the given semigroup is an {@link InplaceSemigroup}.
+     */
+    public SortedMergeMap(final Comparator<? super K> keyOrder, final Semigroup<V> semigroup) {
+        this(keyOrder, x -> semigroup);
+        if (semigroup instanceof InplaceSemigroup) {
+            throw new IllegalArgumentException(INPLACE_SEMIGROUP_ERROR);
+        }
+    }
+
+    /**
+     * Creates an empty sorted merge map in which keys are sorted by their natural order.
+     * @param semigroup Merges values of duplicate keys and values of different keys when folding ranges.
+     */
+    public static <K extends Comparable<? super K>, V> SortedMergeMap<K, V> NaturalOrder(final Semigroup<V> semigroup) {
+        return new SortedMergeMap<>(Comparator.naturalOrder(), semigroup);
+    }
+
+    private SortedMergeMap(final SummaryTreeMap<K, V> tree, final Function<V, Semigroup<V>> semigroupFactory) {
+        super(tree, semigroupFactory);
+        this.tree = tree;
+    }
+
+    private static final String INPLACE_SEMIGROUP_ERROR =
+            "SortedMergeMap requires semigroups that do not modify their arguments but got an InplaceSemigroup!";
+
+    private static <V> Semigroup<V> pureSemigroupFor(final Function<V, Semigroup<V>> semigroupFactory, final V value) {
+        final Semigroup<V> semigroup = semigroupFactory.apply(value);
+        if (semigroup instanceof InplaceSemigroup) {
+            throw new IllegalArgumentException(INPLACE_SEMIGROUP_ERROR);
+        }
+        return semigroup;
+    }
+
+    /**
+     * Merges the given value into the value of the given key in a single descent of the tree.
+     */
+    @Override
+    public V put(final K key, final V value) {
+        return tree.merge(key, value, (present, v) -> pureSemigroupFor(semigroupFactory, present).append(present, v));
+    }
+
+    /**
+     * @return The merge of all values in ascending key order or empty if this map is empty.
+     */
+    public Optional<V> fold() {
+        return Optional.ofNullable(tree.summary());
+    }
+
+    /**
+     * Merges all values of keys in [fromKey, toKey) in ascending key order in O(log n).
+     * @return The merged value or empty if there are no keys in the given range.
+     */
+    public Optional<V> foldRange(final K fromKey, final K toKey) {
+        return foldRange(fromKey, true, toKey, false);
+    }
+
+    /**
+     * Merges all values of keys between fromKey and toKey in ascending key order in O(log n).
+     * @param fromKey Lower bound of the range or null for no lower bound.
+     * @param toKey Upper bound of the range or null for no upper bound.
+     * @return The merged value or empty if there are no keys in the given range.
+     */
+    public Optional<V> foldRange(final K fromKey, final boolean fromInclusive, final K toKey, final boolean toInclusive) {
+        return Optional.ofNullable(tree.summary(fromKey, fromInclusive, toKey, toInclusive));
+    }
+
+    /**
+     * Merges all values of keys less than toKey in ascending key order in O(log n).
+     */
+    public Optional<V> foldHead(final K toKey, final boolean inclusive) {
+        return foldRange(null, true, toKey, inclusive);
+    }
+
+    /**
+     * Merges all values of keys greater than fromKey in ascending key order in O(log n).
+     */
+    public Optional<V> foldTail(final K fromKey, final boolean inclusive) {
+        return foldRange(fromKey, inclusive, null, true);
+    }
+
+    /**
+     * @throws java.util.NoSuchElementException if this map is empty.
+     */
+    public K firstKey() {
+        return tree.firstKey();
+    }
+
+    /**
+     * @throws java.util.NoSuchElementException if this map is empty.
+     */
+    public K lastKey() {
+        return tree.lastKey();
+    }
+
+    /**
+     * @return The greatest key less than or equal to the given key or null if there is no such key.
+     */
+    public K floorKey(final K key) {
+        return tree.floorKey(key, true);
+    }
+
+    /**
+     * @return The greatest key strictly less than the given key or null if there is no such key.
+     */
+    public K lowerKey(final K key) {
+        return tree.floorKey(key, false);
+    }
+
+    /**
+     * @return The least key greater than or equal to the given key or null if there is no such key.
+     */
+    public K ceilingKey(final K key) {
+        return tree.ceilingKey(key, true);
+    }
+
+    /**
+     * @return The least key strictly greater than the given key or null if there is no such key.
+     */
+    public K higherKey(final K key) {
+        return tree.ceilingKey(key, false);
+    }
+}
@@ -0,0 +1,384 @@
+package org.variantsync.functjonal.map;
+
+import org.variantsync.functjonal.category.Semigroup;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+import java.util.function.BiConsumer;
+
+/**
+ * A merge map for aggregations with more distinct keys than fit into memory.
+ * Values are merged in memory as in a {@link MergeMap} until the number of entries in memory reaches a threshold.
+ * Then, the entries in memory are sorted by key and spilled to a temporary file (a <i>run</i>) and memory is cleared.
+ * Reading all entries performs a streaming k-way merge over all runs and the entries still in memory,
+ * merging values of duplicate keys with the semigroup in the order in which they were put.
+ * Thus, at most one entry per run has to be in memory during iteration.
+ *
+ * <p>Spilled files are deleted by {@link #close()}.
+ * A SpillingMergeMap should thus be used in a try-with-resources statement.
+ *
+ * @param <K> key type
+ * @param <V> value type
+ */
+public class SpillingMergeMap<K, V> implements Iterable<Map.Entry<K, V>>, AutoCloseable {
+    private final Semigroup<V> semigroup;
+    private final Comparator<? super K> keyOrder;
+    private final Codec<K> keyCodec;
+    private final Codec<V> valueCodec;
+    private final int maxEntriesInMemory;
+    private final Path directory;
+
+    private final Map<K, V> memory = new HashMap<>();
+    private final List<Path> runs = new ArrayList<>();
+
+    /**
+     * Creates an empty spilling merge map.
+     * @param semigroup Merges values of duplicate keys.
+     * @param keyOrder Total order on keys that is consistent with equals. Runs are sorted by this order.
+     * @param keyCodec Serializes keys to runs.
+     * @param valueCodec Serializes values to runs.
+     * @param maxEntriesInMemory The number of entries in memory that triggers spilling to a new run.
+     * @param directory The directory in which to create runs.
+     */
+    public SpillingMergeMap(
+            final Semigroup<V> semigroup,
+            final Comparator<? super K> keyOrder,
+            final Codec<K> keyCodec,
+            final Codec<V> valueCodec,
+            final int maxEntriesInMemory,
+            final Path directory)
+    {
+        if (maxEntriesInMemory < 1) {
+            throw new IllegalArgumentException("Maximum number of entries in memory must be positive but was " + maxEntriesInMemory + "!");
+        }
+        this.semigroup = semigroup;
+        this.keyOrder = keyOrder;
+        this.keyCodec = keyCodec;
+        this.valueCodec = valueCodec;
+        this.maxEntriesInMemory = maxEntriesInMemory;
+        this.directory = directory;
+    }
+
+    /**
+     * Creates an empty spilling merge map that spills to the default temporary-file directory.
+     * @see #SpillingMergeMap(Semigroup, Comparator, Codec, Codec, int, Path)
+     */
+    public SpillingMergeMap(
+            final Semigroup<V> semigroup,
+            final Comparator<? super K> keyOrder,
+            final Codec<K> keyCodec,
+            final Codec<V> valueCodec,
+            final int maxEntriesInMemory)
+    {
+        this(semigroup, keyOrder, keyCodec, valueCodec, maxEntriesInMemory, Path.of(System.getProperty("java.io.tmpdir")));
+    }
+
+    /**
+     * Merges the given value into the entry of the given key in memory.
+     * Spills all entries in memory to a new run if the memory threshold is reached.
+     */
+    public void put(final K key, final V value) {
+        MergeMap.putValue(memory, key, value, semigroup);
+        if (memory.size() >= maxEntriesInMemory) {
+            spill();
+        }
+    }
+
+    /**
+     * Merges all entries of the given map into this map.
+     */
+    public void putAll(final Map<? extends K, ? extends V> m) {
+        for (final Map.Entry<? extends K, ? extends V> entry : m.entrySet()) {
+            put(entry.getKey(), entry.getValue());
+        }
+    }
+
+    /**
+     * Looks up the merged value of the given key.
+     * This has to scan each run up to the position of the key and is thus expensive.
+     * Prefer iterating all entries at once.
+     * @return The merged value of the given key or null if the key is not present.
+     */
+    public V get(final K key) {
+        V result = null;
+        for (final Path run : runs) {
+            try (RunIterator it = new RunIterator(run)) {
+                while (it.hasNext()) {
+                    final Map.Entry<K, V> entry = it.next();
+                    final int c = keyOrder.compare(entry.getKey(), key);
+                    if (c == 0) {
+                        result = result == null ? entry.getValue() : semigroup.append(result, entry.getValue());
+                    }
+                    if (c >= 0) {
+                        break;
+                    }
+                }
+            }
+        }
+
+        final V inMemory = memory.get(key);
+        if (inMemory != null) {
+            result = result == null ? inMemory : semigroup.append(result, inMemory);
+        }
+        return result;
+    }
+
+    /**
+     * Sorts all entries in memory by key and writes them to a new run.
+     * If writing fails, the incomplete run is deleted and all entries remain in memory.
+     */
+    public void spill() {
+        if (memory.isEmpty()) {
+            return;
+        }
+
+        final List<Map.Entry<K, V>> sorted = sortedMemory();
+        final Path run;
+        try {
+            run = Files.createTempFile(directory, "mergemap-run-", ".bin");
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        boolean written = false;
+        try {
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(run), 1 << 16))) {
+                out.writeInt(sorted.size());
+                for (final Map.Entry<K, V> entry : sorted) {
+                    keyCodec.write(out, entry.getKey());
+                    valueCodec.write(out, entry.getValue());
+                }
+            }
+            written = true;
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            if (!written) {
+                // Drop the incomplete run. The entries remain in memory.
+                try {
+                    Files.deleteIfExists(run);
+                } catch (final IOException ignored) {
+                    // The run is not registered and thus never read.
+                }
+            }
+        }
+        // Register the run only once it was written completely.
+        runs.add(run);
+        memory.clear();
+    }
+
+    /**
+     * @return The number of runs spilled to disk.
+     */
+    public int getNumberOfRuns() {
+        return runs.size();
+    }
+
+    /**
+     * Returns an iterator over all merged entries in ascending key order.
+     * The iterator closes all opened runs once it is exhausted.
+     * This map must not be modified during iteration.
+     */
+    @Override
+    public Iterator<Map.Entry<K, V>> iterator() {
+        return new MergingIterator();
+    }
+
+    /**
+     * Runs the given consumer on all merged entries in ascending key order.
+     * In contrast to {@link #iterator()}, all opened runs are closed even if the consumer throws an exception.
+     */
+    public void forEach(final BiConsumer<? super K, ? super V> consumer) {
+        try (MergingIterator it = new MergingIterator()) {
+            while (it.hasNext()) {
+                final Map.Entry<K, V> entry = it.next();
+                consumer.accept(entry.getKey(), entry.getValue());
+            }
+        }
+    }
+
+    /**
+     * Deletes all runs and clears memory.
+     */
+    @Override
+    public void close() {
+        memory.clear();
+        UncheckedIOException failure = null;
+        for (final Path run : runs) {
+            try {
+                Files.deleteIfExists(run);
+            } catch (final IOException e) {
+                if (failure == null) {
+                    failure = new UncheckedIOException(e);
+                } else {
+                    failure.addSuppressed(e);
+                }
+            }
+        }
+        runs.clear();
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    private List<Map.Entry<K, V>> sortedMemory() {
+        final List<Map.Entry<K, V>> sorted = new ArrayList<>(memory.entrySet());
+        sorted.sort(Map.Entry.comparingByKey(keyOrder));
+        return sorted;
+    }
+
+    /**
+     * Streams the entries of a run.
+     */
+    private class RunIterator implements Iterator<Map.Entry<K, V>>, Closeable {
+        private final DataInputStream in;
+        private int remaining;
+
+        RunIterator(final Path run) {
+            try {
+                in = new DataInputStream(new BufferedInputStream(Files.newInputStream(run), 1 << 16));
+                remaining = in.readInt();
+            } catch (final IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return remaining > 0;
+        }
+
+        @Override
+        public Map.Entry<K, V> next() {
+            if (remaining <= 0) {
+                throw new NoSuchElementException();
+            }
+            try {
+                --remaining;
+                final K key = keyCodec.read(in);
+                return new AbstractMap.SimpleImmutableEntry<>(key, valueCodec.read(in));
+            } catch (final IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public void close() {
+            try {
+                in.close();
+            } catch (final IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    /**
+     * The head of a sorted source of entries in the k-way merge.
+     * Sources with a lower index hold older values.
+     */
+    private class Cursor {
+        private final Iterator<Map.Entry<K, V>> source;
+        private final int index;
+        private Map.Entry<K, V> head;
+
+        Cursor(final Iterator<Map.Entry<K, V>> source, final int index) {
+            this.source = source;
+            this.index = index;
+            this.head = source.next();
+        }
+
+        /**
+         * @return True iff the cursor has a new head.
+         */
+        boolean advance() {
+            head = source.hasNext() ? source.next() : null;
+            return head != null;
+        }
+    }
+
+    private class MergingIterator implements Iterator<Map.Entry<K, V>>, AutoCloseable {
+        private final List<RunIterator> openRuns = new ArrayList<>();
+        private final PriorityQueue<Cursor> heads;
+
+        MergingIterator() {
+            heads = new PriorityQueue<>(runs.size() + 1, Comparator
+                    .<Cursor, K>comparing(c -> c.head.getKey(), keyOrder)
+                    .thenComparingInt(c -> c.index));
+            try {
+                for (int i = 0; i < runs.size(); ++i) {
+                    final RunIterator it = new RunIterator(runs.get(i));
+                    openRuns.add(it);
+                    if (it.hasNext()) {
+                        heads.add(new Cursor(it, i));
+                    }
+                }
+            } catch (final RuntimeException e) {
+                close();
+                throw e;
+            }
+
+            if (!memory.isEmpty()) {
+                heads.add(new Cursor(sortedMemory().iterator(), runs.size()));
+            }
+            if (heads.isEmpty()) {
+                close();
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return !heads.isEmpty();
+        }
+
+        @Override
+        public Map.Entry<K, V> next() {
+            if (heads.isEmpty()) {
+                throw new NoSuchElementException();
+            }
+
+            Cursor c = heads.poll();
+            final K key = c.head.getKey();
+            V value = c.head.getValue();
+            requeue(c);
+            while (!heads.isEmpty() && keyOrder.compare(heads.peek().head.getKey(), key) == 0) {
+                c = heads.poll();
+                value = semigroup.append(value, c.head.getValue());
+                requeue(c);
+            }
+
+            if (heads.isEmpty()) {
+                close();
+            }
+            return new AbstractMap.SimpleImmutableEntry<>(key, value);
+        }
+
+        private void requeue(final Cursor c) {
+            if (c.advance()) {
+                heads.add(c);
+            }
+        }
+
+        @Override
+        public void close() {
+            for (final RunIterator run : openRuns) {
+                run.close();
+            }
+            openRuns.clear();
+        }
+    }
+}
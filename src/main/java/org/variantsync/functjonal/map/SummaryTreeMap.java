@@ -0,0 +1,474 @@
+package org.variantsync.functjonal.map;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayDeque;
+import java.util.Comparator;
+import java.util.ConcurrentModificationException;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.function.BiFunction;
+import java.util.function.BinaryOperator;
+
+/**
+ * A sorted map implemented as an AVL tree in which each node caches the summary of all values in its subtree.
+ * Summaries are computed with an associative operation in key order such that the summary of any key range
+ * can be assembled from O(log n) cached summaries.
+ * Null values are not supported (null denotes the summary of an empty range).
+ * @param <K> key type
+ * @param <V> value type
+ */
+class SummaryTreeMap<K, V> extends AbstractMap<K, V> {
+    private static final class Node<K, V> {
+        final K key;
+        V value;
+        Node<K, V> left;
+        Node<K, V> right;
+        int height = 1;
+        V summary;
+
+        Node(final K key, final V value) {
+            this.key = key;
+            this.value = value;
+            this.summary = value;
+        }
+    }
+
+    private final Comparator<? super K> order;
+    private final BinaryOperator<V> summarize;
+
+    private Node<K, V> root;
+    private int size;
+    private int modCount;
+
+    /**
+     * @param order Total order on keys.
+     * @param summarize Associative operation to combine the values of adjacent keys (in ascending key order).
+     */
+    SummaryTreeMap(final Comparator<? super K> order, final BinaryOperator<V> summarize) {
+        this.order = order;
+        this.summarize = summarize;
+    }
+
+    /// Queries
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean containsKey(final Object key) {
+        return find(key) != null;
+    }
+
+    @Override
+    public V get(final Object key) {
+        final Node<K, V> node = find(key);
+        return node == null ? null : node.value;
+    }
+
+    private Node<K, V> find(final Object key) {
+        @SuppressWarnings("unchecked")
+        final K k = (K) key;
+        Node<K, V> node = root;
+        while (node != null) {
+            final int c = order.compare(k, node.key);
+            if (c == 0) {
+                return node;
+            }
+            node = c < 0 ? node.left : node.right;
+        }
+        return null;
+    }
+
+    K firstKey() {
+        if (root == null) {
+            throw new NoSuchElementException();
+        }
+        Node<K, V> node = root;
+        while (node.left != null) {
+            node = node.left;
+        }
+        return node.key;
+    }
+
+    K lastKey() {
+        if (root == null) {
+            throw new NoSuchElementException();
+        }
+        Node<K, V> node = root;
+        while (node.right != null) {
+            node = node.right;
+        }
+        return node.key;
+    }
+
+    /**
+     * @return The greatest key less than or equal to the given key (or strictly less if not inclusive) or null.
+     */
+    K floorKey(final K key, final boolean inclusive) {
+        K result = null;
+        Node<K, V> node = root;
+        while (node != null) {
+            final int c = order.compare(key, node.key);
+            if (c > 0 || (inclusive && c == 0)) {
+                result = node.key;
+                node = node.right;
+            } else {
+                node = node.left;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @return The least key greater than or equal to the given key (or strictly greater if not inclusive) or null.
+     */
+    K ceilingKey(final K key, final boolean inclusive) {
+        K result = null;
+        Node<K, V> node = root;
+        while (node != null) {
+            final int c = order.compare(key, node.key);
+            if (c < 0 || (inclusive && c == 0)) {
+                result = node.key;
+                node = node.left;
+            } else {
+                node = node.right;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @return The summary of all values or null if this map is empty.
+     */
+    V summary() {
+        return root == null ? null : root.summary;
+    }
+
+    /**
+     * @param from Lower bound or null for no lower bound.
+     * @param to Upper bound or null for no upper bound.
+     * @return The summary of all values whose keys are within the given bounds or null if there are none.
+     */
+    V summary(final K from, final boolean fromInclusive, final K to, final boolean toInclusive) {
+        Node<K, V> node = root;
+        // Descend to the topmost node within the range. Below it, the range splits into
+        // a suffix of its left subtree and a prefix of its right subtree.
+        while (node != null) {
+            if (from != null && !isAbove(node.key, from, fromInclusive)) {
+                node = node.right;
+            } else if (to != null && !isBelow(node.key, to, toInclusive)) {
+                node = node.left;
+            } else {
+                break;
+            }
+        }
+        if (node == null) {
+            return null;
+        }
+
+        final V suffix = from == null ? summaryOf(node.left) : suffixSummary(node.left, from, fromInclusive);
+        final V prefix = to == null ? summaryOf(node.right) : prefixSummary(node.right, to, toInclusive);
+        return combine(combine(suffix, node.value), prefix);
+    }
+
+    /**
+     * @return The summary of all values in the given subtree whose keys are above the given bound.
+     */
+    private V suffixSummary(Node<K, V> node, final K from, final boolean inclusive) {
+        V result = null;
+        while (node != null) {
+            if (isAbove(node.key, from, inclusive)) {
+                // The node and its right subtree are within the range and precede all values collected so far.
+                result = combine(combine(node.value, summaryOf(node.right)), result);
+                node = node.left;
+            } else {
+                node = node.right;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @return The summary of all values in the given subtree whose keys are below the given bound.
+     */
+    private V prefixSummary(Node<K, V> node, final K to, final boolean inclusive) {
+        V result = null;
+        while (node != null) {
+            if (isBelow(node.key, to, inclusive)) {
+                // The left subtree and the node are within the range and succeed all values collected so far.
+                result = combine(result, combine(summaryOf(node.left), node.value));
+                node = node.right;
+            } else {
+                node = node.left;
+            }
+        }
+        return result;
+    }
+
+    private boolean isAbove(final K key, final K from, final boolean inclusive) {
+        final int c = order.compare(key, from);
+        return c > 0 || (inclusive && c == 0);
+    }
+
+    private boolean isBelow(final K key, final K to, final boolean inclusive) {
+        final int c = order.compare(key, to);
+        return c < 0 || (inclusive && c == 0);
+    }
+
+    private V combine(final V a, final V b) {
+        if (a == null) {
+            return b;
+        }
+        if (b == null) {
+            return a;
+        }
+        return summarize.apply(a, b);
+    }
+
+    private static <K, V> V summaryOf(final Node<K, V> node) {
+        return node == null ? null : node.summary;
+    }
+
+    /// Modifications
+
+    @Override
+    public V put(final K key, final V value) {
+        return merge(key, value, (old, v) -> v);
+    }
+
+    /**
+     * Associates the given value to the given key if absent or otherwise replaces the present value v by
+     * remapping.apply(v, value) in a single descent.
+     * @return The value associated to the given key afterwards.
+     */
+    @Override
+    public V merge(final K key, final V value, final BiFunction<? super V, ? super V, ? extends V> remapping) {
+        if (value == null) {
+            throw new NullPointerException("Values must not be null!");
+        }
+        final Object[] result = new Object[1];
+        root = merge(root, key, value, remapping, result);
+        @SuppressWarnings("unchecked")
+        final V v = (V) result[0];
+        return v;
+    }
+
+    private Node<K, V> merge(
+            final Node<K, V> node,
+            final K key,
+            final V value,
+            final BiFunction<? super V, ? super V, ? extends V> remapping,
+            final Object[] result)
+    {
+        if (node == null) {
+            ++size;
+            ++modCount;
+            result[0] = value;
+            return new Node<>(key, value);
+        }
+
+        final int c = order.compare(key, node.key);
+        if (c == 0) {
+            final V merged = remapping.apply(node.value, value);
+            if (merged == null) {
+                throw new NullPointerException("Values must not be null!");
+            }
+            node.value = merged;
+            result[0] = merged;
+            update(node);
+            return node;
+        }
+
+        if (c < 0) {
+            node.left = merge(node.left, key, value, remapping, result);
+        } else {
+            node.right = merge(node.right, key, value, remapping, result);
+        }
+        return balance(node);
+    }
+
+    @Override
+    public V remove(final Object key) {
+        final Node<K, V> node = find(key);
+        if (node == null) {
+            return null;
+        }
+        final V value = node.value;
+        root = remove(root, node.key);
+        --size;
+        ++modCount;
+        return value;
+    }
+
+    private Node<K, V> remove(final Node<K, V> node, final K key) {
+        final int c = order.compare(key, node.key);
+        if (c < 0) {
+            node.left = remove(node.left, key);
+        } else if (c > 0) {
+            node.right = remove(node.right, key);
+        } else {
+            if (node.left == null) {
+                return node.right;
+            }
+            if (node.right == null) {
+                return node.left;
+            }
+            // Replace the node by its successor.
+            Node<K, V> successor = node.right;
+            while (successor.left != null) {
+                successor = successor.left;
+            }
+            final Node<K, V> replacement = new Node<>(successor.key, successor.value);
+            replacement.right = remove(node.right, successor.key);
+            replacement.left = node.left;
+            return balance(replacement);
+        }
+        return balance(node);
+    }
+
+    @Override
+    public void clear() {
+        root = null;
+        size = 0;
+        ++modCount;
+    }
+
+    private static <K, V> int heightOf(final Node<K, V> node) {
+        return node == null ? 0 : node.height;
+    }
+
+    private void update(final Node<K, V> node) {
+        node.height = 1 + Math.max(heightOf(node.left), heightOf(node.right));
+        node.summary = combine(combine(summaryOf(node.left), node.value), summaryOf(node.right));
+    }
+
+    private Node<K, V> rotateLeft(final Node<K, V> node) {
+        final Node<K, V> r = node.right;
+        node.right = r.left;
+        r.left = node;
+        update(node);
+        update(r);
+        return r;
+    }
+
+    private Node<K, V> rotateRight(final Node<K, V> node) {
+        final Node<K, V> l = node.left;
+        node.left = l.right;
+        l.right = node;
+        update(node);
+        update(l);
+        return l;
+    }
+
+    private Node<K, V> balance(final Node<K, V> node) {
+        update(node);
+        final int skew = heightOf(node.left) - heightOf(node.right);
+        if (skew > 1) {
+            if (heightOf(node.left.left) < heightOf(node.left.right)) {
+                node.left = rotateLeft(node.left);
+            }
+            return rotateRight(node);
+        }
+        if (skew < -1) {
+            if (heightOf(node.right.right) < heightOf(node.right.left)) {
+                node.right = rotateRight(node.right);
+            }
+            return rotateLeft(node);
+        }
+        return node;
+    }
+
+    /// Iteration
+
+    @Override
+    public Set<Entry<K, V>> entrySet() {
+        return new AbstractSet<>() {
+            @Override
+            public Iterator<Entry<K, V>> iterator() {
+                return new EntryIterator();
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+
+            @Override
+            public void clear() {
+                SummaryTreeMap.this.clear();
+            }
+        };
+    }
+
+    /**
+     * In-order traversal with an explicit stack of the ancestors still to visit.
+     */
+    private class EntryIterator implements Iterator<Entry<K, V>> {
+        private final Deque<Node<K, V>> stack = new ArrayDeque<>();
+        private int expectedModCount = modCount;
+        private K lastReturned;
+        private boolean canRemove = false;
+
+        EntryIterator() {
+            pushLeft(root);
+        }
+
+        private void pushLeft(Node<K, V> node) {
+            while (node != null) {
+                stack.push(node);
+                node = node.left;
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return !stack.isEmpty();
+        }
+
+        @Override
+        public Entry<K, V> next() {
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+            if (stack.isEmpty()) {
+                throw new NoSuchElementException();
+            }
+            final Node<K, V> node = stack.pop();
+            pushLeft(node.right);
+            lastReturned = node.key;
+            canRemove = true;
+            return new SimpleImmutableEntry<>(node.key, node.value);
+        }
+
+        @Override
+        public void remove() {
+            if (!canRemove) {
+                throw new IllegalStateException();
+            }
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+            SummaryTreeMap.this.remove(lastReturned);
+            expectedModCount = modCount;
+            canRemove = false;
+
+            // Rebalancing invalidated the stack. Rebuild it for all keys greater than the removed one.
+            stack.clear();
+            Node<K, V> node = root;
+            while (node != null) {
+                if (order.compare(node.key, lastReturned) > 0) {
+                    stack.push(node);
+                    node = node.left;
+                } else {
+                    node = node.right;
+                }
+            }
+        }
+    }
+}
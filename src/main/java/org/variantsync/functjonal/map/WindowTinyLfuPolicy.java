@@ -0,0 +1,204 @@
+package org.variantsync.functjonal.map;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Objects;
+
+/**
+ * Window TinyLFU eviction.
+ * Keys are kept in three access ordered segments: a small window for new keys and a main segment that is split into
+ * a probation and a protected part. Keys that overflow the window move to probation.
+ * The victim is chosen among the least recently used key in probation and the key most recently moved there from
+ * the window by comparing their estimated access frequencies.
+ * Keys accessed while on probation are promoted to the protected part.
+ */
+class WindowTinyLfuPolicy<K> implements EvictionPolicy<K> {
+    private final int maxWindow;
+    private final int maxProtected;
+
+    private final LinkedHashMap<K, Boolean> window = new LinkedHashMap<>(16, 0.75f, true);
+    private final LinkedHashMap<K, Boolean> probation = new LinkedHashMap<>(16, 0.75f, true);
+    private final LinkedHashMap<K, Boolean> protectedSegment = new LinkedHashMap<>(16, 0.75f, true);
+    private final FrequencySketch sketch;
+
+    /**
+     * The key that most recently moved from the window to probation and was not judged yet.
+     */
+    private K candidate;
+
+    WindowTinyLfuPolicy(final int maximumSize) {
+        if (maximumSize < 1) {
+            throw new IllegalArgumentException("Maximum size must be positive but was " + maximumSize + "!");
+        }
+        this.maxWindow = Math.max(1, maximumSize / 100);
+        this.maxProtected = (int) (0.8 * Math.max(0, maximumSize - maxWindow));
+        this.sketch = new FrequencySketch(maximumSize);
+    }
+
+    @Override
+    public void recordInsert(final K key) {
+        sketch.increment(key);
+        window.put(key, Boolean.TRUE);
+        if (window.size() > maxWindow) {
+            final K overflow = eldest(window);
+            window.remove(overflow);
+            probation.put(overflow, Boolean.TRUE);
+            candidate = overflow;
+        }
+    }
+
+    @Override
+    public void recordAccess(final K key) {
+        sketch.increment(key);
+        if (window.get(key) != null || protectedSegment.get(key) != null) {
+            return;
+        }
+        if (probation.remove(key) != null) {
+            if (Objects.equals(key, candidate)) {
+                candidate = null;
+            }
+            protectedSegment.put(key, Boolean.TRUE);
+            if (protectedSegment.size() > maxProtected) {
+                final K demoted = eldest(protectedSegment);
+                protectedSegment.remove(demoted);
+                probation.put(demoted, Boolean.TRUE);
+            }
+        }
+    }
+
+    @Override
+    public void recordRemove(final K key) {
+        if (window.remove(key) == null && probation.remove(key) == null) {
+            protectedSegment.remove(key);
+        }
+        if (Objects.equals(key, candidate)) {
+            candidate = null;
+        }
+    }
+
+    @Override
+    public K victim() {
+        if (!probation.isEmpty()) {
+            final K lru = eldest(probation);
+            if (candidate == null || Objects.equals(candidate, lru)) {
+                return lru;
+            }
+            // The admission filter: The candidate from the window only replaces the
+            // eldest key on probation if it is accessed more frequently.
+            if (sketch.frequency(candidate) > sketch.frequency(lru)) {
+                candidate = null;
+                return lru;
+            }
+            return candidate;
+        }
+        if (!protectedSegment.isEmpty()) {
+            return eldest(protectedSegment);
+        }
+        return eldest(window);
+    }
+
+    @Override
+    public void clear() {
+        window.clear();
+        probation.clear();
+        protectedSegment.clear();
+        sketch.clear();
+        candidate = null;
+    }
+
+    private static <K> K eldest(final LinkedHashMap<K, Boolean> segment) {
+        final Iterator<K> it = segment.keySet().iterator();
+        return it.next();
+    }
+
+    /**
+     * A count-min sketch with four rows of saturating 4-bit counters, packed into longs.
+     * Estimates how often a key was accessed recently: All counters are halved whenever the
+     * number of increments reaches ten times the capacity such that old accesses age out.
+     */
+    private static final class FrequencySketch {
+        private static final long[] SEEDS = {
+                0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L
+        };
+        private static final long ONE_MASK = 0x1111111111111111L;
+        private static final long RESET_MASK = 0x7777777777777777L;
+
+        private final long[] table;
+        private final int mask;
+        private final int sampleSize;
+        private int additions;
+
+        FrequencySketch(final int maximumSize) {
+            final int counters = Math.max(16, Integer.highestOneBit(Math.max(1, maximumSize) - 1) << 1);
+            // 16 counters per long
+            table = new long[Math.max(1, counters / 16) * 4];
+            mask = table.length / 4 - 1;
+            sampleSize = 10 * Math.max(1, maximumSize);
+        }
+
+        void increment(final Object key) {
+            final int hash = spread(Objects.hashCode(key));
+            boolean added = false;
+            for (int row = 0; row < 4; ++row) {
+                added |= incrementAt(row, hash);
+            }
+            if (added && ++additions >= sampleSize) {
+                reset();
+            }
+        }
+
+        int frequency(final Object key) {
+            final int hash = spread(Objects.hashCode(key));
+            int min = Integer.MAX_VALUE;
+            for (int row = 0; row < 4; ++row) {
+                final int index = indexOf(row, hash);
+                final int offset = offsetOf(row, hash);
+                min = Math.min(min, (int) ((table[index] >>> offset) & 0xfL));
+            }
+            return min;
+        }
+
+        void clear() {
+            Arrays.fill(table, 0);
+            additions = 0;
+        }
+
+        private boolean incrementAt(final int row, final int hash) {
+            final int index = indexOf(row, hash);
+            final int offset = offsetOf(row, hash);
+            if (((table[index] >>> offset) & 0xfL) == 0xfL) {
+                return false;
+            }
+            table[index] += 1L << offset;
+            return true;
+        }
+
+        private void reset() {
+            int odd = 0;
+            for (int i = 0; i < table.length; ++i) {
+                odd += Long.bitCount(table[i] & ONE_MASK);
+                table[i] = (table[i] >>> 1) & RESET_MASK;
+            }
+            additions = (additions - (odd >>> 2)) >>> 1;
+        }
+
+        /**
+         * Each row occupies a quarter of the table.
+         */
+        private int indexOf(final int row, final int hash) {
+            long h = (hash + SEEDS[row]) * SEEDS[row];
+            h += h >>> 32;
+            return row * (mask + 1) + ((int) h & mask);
+        }
+
+        private static int offsetOf(final int row, final int hash) {
+            return (((hash >>> (row * 8)) & 0xf) << 2);
+        }
+
+        private static int spread(final int x) {
+            int h = x * 0x9E3779B9;
+            return h ^ (h >>> 16);
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package org.variantsync.functjonal.list;
+
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.function.ToLongFunction;
+
+/**
+ * Benchmarks recursive list algorithms over {@link ListHeadTailView}s.
+ * Prints the time per element for growing list sizes such that linear algorithms show a constant time per element
+ * while quadratic algorithms show a time per element that grows with the list size.
+ *
+ * <p>This is not a unit test. Run it manually, e.g., with
+ * {@code java -cp target/classes:target/test-classes org.variantsync.functjonal.list.ListHeadTailViewBenchmark}.
+ */
+public class ListHeadTailViewBenchmark {
+    private static final int[] SIZES = {1_000, 4_000, 16_000, 64_000};
+    /**
+     * Recursion depth of the truly recursive algorithms is bounded by the size of the call stack.
+     */
+    private static final int MAX_RECURSION_DEPTH = 4_000;
+    private static final int WARMUP_RUNS = 5;
+    private static final int MEASURED_RUNS = 10;
+
+    private static long sumIteratively(final ListHeadTailView<Integer> list) {
+        long sum = 0;
+        for (ListHeadTailView<Integer> view = list; !view.empty(); view = view.tail()) {
+            sum += view.head();
+        }
+        return sum;
+    }
+
+    private static long sumRecursively(final ListHeadTailView<Integer> list) {
+        return list.empty() ? 0 : list.head() + sumRecursively(list.tail());
+    }
+
+    private static long countAscendingRecursively(final ListHeadTailView<Integer> list) {
+        if (list.empty()) {
+            return 0;
+        }
+        final ListHeadTailView<Integer> tail = list.tail();
+        final long ascending = !tail.empty() && list.head() < tail.head() ? 1 : 0;
+        return ascending + countAscendingRecursively(tail);
+    }
+
+    private static void run(
+            final String algorithm,
+            final ToLongFunction<ListHeadTailView<Integer>> f,
+            final int maxSize)
+    {
+        for (final int size : SIZES) {
+            if (size > maxSize) {
+                continue;
+            }
+            run(algorithm, "ArrayList", () -> new ArrayList<>(size), size, f);
+            run(algorithm, "LinkedList", LinkedList::new, size, f);
+        }
+    }
+
+    private static void run(
+            final String algorithm,
+            final String listType,
+            final Supplier<List<Integer>> newList,
+            final int size,
+            final ToLongFunction<ListHeadTailView<Integer>> f)
+    {
+        final List<Integer> list = newList.get();
+        for (int i = 0; i < size; ++i) {
+            list.add(i);
+        }
+
+        long checksum = 0;
+        for (int i = 0; i < WARMUP_RUNS; ++i) {
+            checksum += f.applyAsLong(ListHeadTailView.of(list));
+        }
+        final long start = System.nanoTime();
+        for (int i = 0; i < MEASURED_RUNS; ++i) {
+            checksum += f.applyAsLong(ListHeadTailView.of(list));
+        }
+        final double nanosPerElement = (System.nanoTime() - start) / (double) MEASURED_RUNS / size;
+
+        System.out.printf("%-20s %-10s n=%-7d %8.2f ns/element (checksum %d)%n", algorithm, listType, size, nanosPerElement, checksum);
+    }
+
+    public static void main(final String[] args) {
+        run("sum (loop)", ListHeadTailViewBenchmark::sumIteratively, Integer.MAX_VALUE);
+        run("sum (recursive)", ListHeadTailViewBenchmark::sumRecursively, MAX_RECURSION_DEPTH);
+        run("ascending pairs", ListHeadTailViewBenchmark::countAscendingRecursively, MAX_RECURSION_DEPTH);
+    }
+}
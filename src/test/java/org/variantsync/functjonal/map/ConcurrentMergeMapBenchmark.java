@@ -0,0 +1,131 @@
+package org.variantsync.functjonal.map;
+
+import org.variantsync.functjonal.category.Semigroup;
+
+import java.util.HashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * Benchmarks aggregating into a single merge map from 1 to N threads, where N is the number of available processors
+ * or the number given as first program argument.
+ * Each thread puts the same number of values such that a map that scales linearly shows a constant time per put
+ * and a throughput that grows with the number of threads.
+ * Compares a {@link ConcurrentMergeMap} to a {@link MergeMap} over a {@link HashMap} that is guarded by an external
+ * lock, once for keys spread over a large key space and once for a few hot keys (high contention).
+ *
+ * <p>This is not a unit test. Run it manually, e.g., with
+ * {@code java -cp target/classes:target/test-classes org.variantsync.functjonal.map.ConcurrentMergeMapBenchmark}.
+ */
+public class ConcurrentMergeMapBenchmark {
+    private static final int PUTS_PER_THREAD = 1_000_000;
+    private static final int SPREAD_KEYS = 1 << 20;
+    private static final int HOT_KEYS = 64;
+    private static final int WARMUP_RUNS = 3;
+    private static final int MEASURED_RUNS = 5;
+
+    private static final Semigroup<Long> SUM = Long::sum;
+
+    /**
+     * A map that accepts puts from several threads at once.
+     */
+    private interface ConcurrentPut {
+        void put(final int key, final long value);
+        long sum();
+    }
+
+    private static ConcurrentPut concurrentMergeMap() {
+        final ConcurrentMergeMap<Integer, Long> map = new ConcurrentMergeMap<>(new ConcurrentHashMap<>(), SUM);
+        return new ConcurrentPut() {
+            @Override
+            public void put(final int key, final long value) {
+                map.put(key, value);
+            }
+
+            @Override
+            public long sum() {
+                return map.values().stream().mapToLong(Long::longValue).sum();
+            }
+        };
+    }
+
+    private static ConcurrentPut lockedMergeMap() {
+        final MergeMap<Integer, Long> map = new MergeMap<>(new HashMap<>(), SUM);
+        return new ConcurrentPut() {
+            @Override
+            public void put(final int key, final long value) {
+                synchronized (map) {
+                    map.put(key, value);
+                }
+            }
+
+            @Override
+            public long sum() {
+                return map.values().stream().mapToLong(Long::longValue).sum();
+            }
+        };
+    }
+
+    /**
+     * @return Nanoseconds needed by the given number of threads to put {@link #PUTS_PER_THREAD} values each.
+     */
+    private static long run(final Supplier<ConcurrentPut> newMap, final int threads, final int keys) throws InterruptedException {
+        final ConcurrentPut map = newMap.get();
+        final CountDownLatch start = new CountDownLatch(1);
+        final Thread[] workers = new Thread[threads];
+        for (int t = 0; t < threads; ++t) {
+            workers[t] = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (final InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                final ThreadLocalRandom random = ThreadLocalRandom.current();
+                for (int i = 0; i < PUTS_PER_THREAD; ++i) {
+                    map.put(random.nextInt(keys), 1);
+                }
+            });
+            workers[t].start();
+        }
+
+        final long begin = System.nanoTime();
+        start.countDown();
+        for (final Thread worker : workers) {
+            worker.join();
+        }
+        final long nanos = System.nanoTime() - begin;
+
+        final long expected = (long) threads * PUTS_PER_THREAD;
+        if (map.sum() != expected) {
+            throw new IllegalStateException("Lost updates: expected a sum of " + expected + " but got " + map.sum() + "!");
+        }
+        return nanos;
+    }
+
+    private static void run(final String mapType, final Supplier<ConcurrentPut> newMap, final String keyType, final int keys, final int maxThreads) throws InterruptedException {
+        // Doubles the number of threads up to the number of processors.
+        for (int threads = 1; threads <= maxThreads; threads = threads == maxThreads ? threads + 1 : Math.min(2 * threads, maxThreads)) {
+            for (int i = 0; i < WARMUP_RUNS; ++i) {
+                run(newMap, threads, keys);
+            }
+            long nanos = 0;
+            for (int i = 0; i < MEASURED_RUNS; ++i) {
+                nanos += run(newMap, threads, keys);
+            }
+            final double seconds = nanos / 1e9 / MEASURED_RUNS;
+            final double puts = (double) threads * PUTS_PER_THREAD;
+            System.out.printf("%-18s %-7s threads=%-3d %8.2f Mputs/s %8.2f ns/put%n", mapType, keyType, threads, puts / seconds / 1e6, seconds * 1e9 / puts);
+        }
+    }
+
+    public static void main(final String[] args) throws InterruptedException {
+        final int maxThreads = args.length > 0 ? Integer.parseInt(args[0]) : Runtime.getRuntime().availableProcessors();
+        run("ConcurrentMergeMap", ConcurrentMergeMapBenchmark::concurrentMergeMap, "spread", SPREAD_KEYS, maxThreads);
+        run("ConcurrentMergeMap", ConcurrentMergeMapBenchmark::concurrentMergeMap, "hot", HOT_KEYS, maxThreads);
+        run("locked MergeMap", ConcurrentMergeMapBenchmark::lockedMergeMap, "spread", SPREAD_KEYS, maxThreads);
+        run("locked MergeMap", ConcurrentMergeMapBenchmark::lockedMergeMap, "hot", HOT_KEYS, maxThreads);
+    }
+}
@@ -0,0 +1,139 @@
+package org.variantsync.functjonal.map;
+
+import org.variantsync.functjonal.category.IntMonoid;
+import org.variantsync.functjonal.category.LongMonoid;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Random;
+import java.util.function.Supplier;
+
+/**
+ * Benchmarks the primitive merge maps {@link IntIntMergeMap} and {@link LongLongMergeMap} against a {@link MergeMap}
+ * over a {@link HashMap} with boxed keys and values.
+ * For each map, counts the occurrences of random keys (throughput in ns per put, where most puts merge) and
+ * measures the heap retained per entry of a map with distinct keys (memory).
+ * Heap measurements rely on {@link System#gc()} and are thus approximations.
+ *
+ * <p>This is not a unit test. Run it manually, e.g., with
+ * {@code java -cp target/classes:target/test-classes org.variantsync.functjonal.map.PrimitiveMergeMapBenchmark}.
+ */
+public class PrimitiveMergeMapBenchmark {
+    private static final int[] KEY_SPACES = {1_000, 100_000, 1_000_000};
+    private static final int PUTS = 10_000_000;
+    private static final int MEMORY_ENTRIES = 1_000_000;
+    private static final int WARMUP_RUNS = 3;
+    private static final int MEASURED_RUNS = 5;
+
+    /// Throughput
+
+    private static long countIntIntMergeMap(final int[] keys) {
+        final IntIntMergeMap map = new IntIntMergeMap(IntMonoid.SUM);
+        for (final int key : keys) {
+            map.put(key, 1);
+        }
+        return map.size();
+    }
+
+    private static long countBoxedIntMergeMap(final int[] keys) {
+        final MergeMap<Integer, Integer> map = new MergeMap<>(new HashMap<>(), IntMonoid.SUM.boxed());
+        for (final int key : keys) {
+            map.put(key, 1);
+        }
+        return map.size();
+    }
+
+    private static long countLongLongMergeMap(final long[] keys) {
+        final LongLongMergeMap map = new LongLongMergeMap(LongMonoid.SUM);
+        for (final long key : keys) {
+            map.put(key, 1);
+        }
+        return map.size();
+    }
+
+    private static long countBoxedLongMergeMap(final long[] keys) {
+        final MergeMap<Long, Long> map = new MergeMap<>(new HashMap<>(), LongMonoid.SUM.boxed());
+        for (final long key : keys) {
+            map.put(key, 1L);
+        }
+        return map.size();
+    }
+
+    private interface Run {
+        long run();
+    }
+
+    private static void measureThroughput(final String mapType, final int keySpace, final Run run) {
+        long checksum = 0;
+        for (int i = 0; i < WARMUP_RUNS; ++i) {
+            checksum += run.run();
+        }
+        final long start = System.nanoTime();
+        for (int i = 0; i < MEASURED_RUNS; ++i) {
+            checksum += run.run();
+        }
+        final double nanosPerPut = (System.nanoTime() - start) / (double) MEASURED_RUNS / PUTS;
+        System.out.printf("%-28s keys=%-9d %8.2f ns/put (checksum %d)%n", mapType, keySpace, nanosPerPut, checksum);
+    }
+
+    /// Memory
+
+    private static long usedHeap() {
+        final Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; ++i) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    private static void measureMemory(final String mapType, final Supplier<Object> fill) {
+        final long before = usedHeap();
+        final Object map = fill.get();
+        final long after = usedHeap();
+        System.out.printf("%-28s entries=%-9d %8.2f bytes/entry (%s)%n", mapType, MEMORY_ENTRIES, (after - before) / (double) MEMORY_ENTRIES, map.getClass().getSimpleName());
+    }
+
+    public static void main(final String[] args) {
+        final Random random = new Random(42);
+
+        for (final int keySpace : KEY_SPACES) {
+            final int[] intKeys = random.ints(PUTS, 0, keySpace).toArray();
+            // Spreads keys over all 64 bits while keeping keySpace distinct keys.
+            final long[] longKeys = Arrays.stream(intKeys).mapToLong(k -> k * 0x9E3779B97F4A7C15L).toArray();
+            measureThroughput("IntIntMergeMap", keySpace, () -> countIntIntMergeMap(intKeys));
+            measureThroughput("MergeMap<Integer, Integer>", keySpace, () -> countBoxedIntMergeMap(intKeys));
+            measureThroughput("LongLongMergeMap", keySpace, () -> countLongLongMergeMap(longKeys));
+            measureThroughput("MergeMap<Long, Long>", keySpace, () -> countBoxedLongMergeMap(longKeys));
+        }
+
+        // Values above the Integer cache (-128..127) such that boxed values are not shared.
+        measureMemory("IntIntMergeMap", () -> {
+            final IntIntMergeMap map = new IntIntMergeMap(IntMonoid.SUM);
+            for (int i = 0; i < MEMORY_ENTRIES; ++i) {
+                map.put(i, 1000 + i);
+            }
+            return map;
+        });
+        measureMemory("MergeMap<Integer, Integer>", () -> {
+            final MergeMap<Integer, Integer> map = new MergeMap<>(new HashMap<>(), IntMonoid.SUM.boxed());
+            for (int i = 0; i < MEMORY_ENTRIES; ++i) {
+                map.put(i, 1000 + i);
+            }
+            return map;
+        });
+        measureMemory("LongLongMergeMap", () -> {
+            final LongLongMergeMap map = new LongLongMergeMap(LongMonoid.SUM);
+            for (long i = 0; i < MEMORY_ENTRIES; ++i) {
+                map.put(i, 1000 + i);
+            }
+            return map;
+        });
+        measureMemory("MergeMap<Long, Long>", () -> {
+            final MergeMap<Long, Long> map = new MergeMap<>(new HashMap<>(), LongMonoid.SUM.boxed());
+            for (long i = 0; i < MEMORY_ENTRIES; ++i) {
+                map.put(i, 1000 + i);
+            }
+            return map;
+        });
+    }
+}